@@ -0,0 +1,15 @@
+// backend/src/main/java/NeonSquare/backend/config/AsyncConfig.java
+package NeonSquare.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Turns on @Async background work (timeline fan-out, ...).
+ * Uses Boot's applicationTaskExecutor: a pool sized via spring.task.execution.* properties, or
+ * virtual threads when spring.threads.virtual.enabled=true (Java 21 runtime).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,129 @@
+// backend/src/main/java/NeonSquare/backend/config/ClusterBrokerRelay.java
+package NeonSquare.backend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fans broker publishes out to the other application nodes, so a subscriber sees a message
+ * no matter which node saved it.
+ *
+ * Sits on the broker channel: every server-side publish to /topic/chat.*, /topic/user.* or a
+ * /user/... destination is also handed to the ClusterTransport, and frames from other nodes
+ * are sent into this node's broker channel, where the simple broker (or, for /user/...,
+ * the user destination resolver) delivers them to local sessions. Without a transport
+ * (websocket.cluster.transport=none) this is a no-op and the simple broker stays in-JVM.
+ */
+@Slf4j
+@Component
+public class ClusterBrokerRelay implements ChannelInterceptor {
+    private static final String RELAYED_HEADER = "clusterRelayed";
+    private static final List<String> RELAYED_PREFIXES = List.of("/topic/chat.", "/topic/user.", "/user/");
+
+    /** What travels between nodes; the payload is the already-serialized message body. */
+    record Frame(String node, String destination, String contentType, String payload) {}
+
+    private final ClusterTransport transport;
+    private final ObjectMapper json;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter published;
+    private final Counter received;
+    private final Counter failed;
+
+    private MessageChannel brokerChannel;
+
+    public ClusterBrokerRelay(ObjectProvider<ClusterTransport> transport, ObjectMapper json, MeterRegistry meterRegistry) {
+        this.transport = transport.getIfAvailable();
+        this.json = json;
+        this.published = Counter.builder("websocket.cluster.frames").tag("direction", "out")
+                .description("Broker frames relayed between nodes").register(meterRegistry);
+        this.received = Counter.builder("websocket.cluster.frames").tag("direction", "in")
+                .description("Broker frames relayed between nodes").register(meterRegistry);
+        this.failed = Counter.builder("websocket.cluster.frames.failed")
+                .description("Broker frames that could not be relayed").register(meterRegistry);
+    }
+
+    // The broker channel is built by the same config that registers this interceptor
+    @Autowired
+    public void setBrokerChannel(@Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        this.brokerChannel = brokerChannel;
+    }
+
+    /** True when publishes reach other nodes, so "no local session" no longer means "nobody". */
+    public boolean isClustered() {
+        return transport != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport != null) transport.listen(this::receive);
+    }
+
+    // ---- broker channel: copy local publishes to the other nodes
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (transport == null || Boolean.TRUE.equals(message.getHeaders().get(RELAYED_HEADER))) return message;
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) return message;
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || RELAYED_PREFIXES.stream().noneMatch(destination::startsWith)) return message;
+        if (!(message.getPayload() instanceof byte[] body)) return message;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        MimeType contentType = accessor.getContentType();
+        try {
+            transport.publish(json.writeValueAsString(new Frame(nodeId, destination,
+                    contentType == null ? null : contentType.toString(),
+                    new String(body, StandardCharsets.UTF_8))));
+            published.increment();
+        } catch (JsonProcessingException | RuntimeException e) {
+            // local subscribers still get it
+            failed.increment();
+            log.warn("Could not relay {} to other nodes: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    // ---- transport: deliver other nodes' publishes locally
+
+    private void receive(String raw) {
+        Frame frame;
+        try {
+            frame = json.readValue(raw, Frame.class);
+        } catch (JsonProcessingException e) {
+            failed.increment();
+            log.warn("Unreadable cluster broker frame: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(frame.node())) return;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(frame.destination());
+        if (frame.contentType() != null) accessor.setContentType(MimeType.valueOf(frame.contentType()));
+        accessor.setHeader(RELAYED_HEADER, true);
+        brokerChannel.send(MessageBuilder.createMessage(
+                frame.payload().getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+        received.increment();
+    }
+}
@@ -0,0 +1,21 @@
+// backend/src/main/java/NeonSquare/backend/config/ClusterTransport.java
+package NeonSquare.backend.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries relayed broker frames between application nodes (see ClusterBrokerRelay).
+ * Delivery is at-most-once and best effort: a node that is disconnected misses what is
+ * published meanwhile, and clients catch up over REST as after any reconnect.
+ */
+public interface ClusterTransport {
+
+    /**
+     * Sends to every listening node, this one included. Must not block the calling thread on I/O:
+     * publishes come from the broker channel, e.g. the chat writer's completion callbacks.
+     */
+    void publish(String message);
+
+    /** Starts delivering published messages to the listener, on a transport thread. */
+    void listen(Consumer<String> listener);
+}
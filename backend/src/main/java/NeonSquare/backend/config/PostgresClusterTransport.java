@@ -0,0 +1,257 @@
+// backend/src/main/java/NeonSquare/backend/config/PostgresClusterTransport.java
+package NeonSquare.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ClusterTransport over Postgres LISTEN/NOTIFY on the application database, so a cluster
+ * needs nothing beyond what a single node already has.
+ *
+ * publish() only enqueues: a dedicated publisher thread drains the bounded queue and sends up
+ * to PUBLISH_BATCH notifications per round trip on its own connection, outside the Hikari pool,
+ * so a busy broker never waits on the database and never takes a connection from request work.
+ * A full queue drops the frame (websocket.cluster.frames.failed). NOTIFY payloads are limited
+ * to 8000 bytes, so larger frames are parked in the unlogged table websocket_relay_payload and
+ * only their id is notified. Listening holds a second dedicated connection. Both reconnect
+ * with backoff when they drop.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.cluster.transport", havingValue = "postgres")
+public class PostgresClusterTransport implements ClusterTransport, DisposableBean {
+    // below the 8000 byte NOTIFY limit with room for the sequence prefix and spill marker
+    private static final int MAX_INLINE_BYTES = 7000;
+    private static final String SPILLED = "@";
+    private static final int PUBLISH_BATCH = 50;
+    private static final int POLL_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbc;
+    private final DataSourceProperties dataSource;
+    private final String channel;
+    private final BlockingQueue<String> outbox;
+    private final Counter failed;
+
+    // Postgres folds identical payloads notified in one transaction; the sequence keeps them apart
+    private long sequence;
+
+    private volatile boolean running = true;
+    private final Thread publisherThread;
+    private Thread listenerThread;
+
+    public PostgresClusterTransport(JdbcTemplate jdbc,
+                                    DataSourceProperties dataSource,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${websocket.cluster.channel:neonsquare_ws}") String channel,
+                                    @Value("${websocket.cluster.queue-capacity:10000}") int queueCapacity) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("websocket.cluster.channel must be a lowercase identifier: " + channel);
+        }
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.outbox = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        // same meter as ClusterBrokerRelay's
+        this.failed = Counter.builder("websocket.cluster.frames.failed")
+                .description("Broker frames that could not be relayed").register(meterRegistry);
+        Gauge.builder("websocket.cluster.outbox.size", outbox, BlockingQueue::size).register(meterRegistry);
+
+        this.publisherThread = new Thread(this::publishLoop, "ws-cluster-publisher");
+        this.publisherThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        jdbc.execute("""
+                CREATE UNLOGGED TABLE IF NOT EXISTS websocket_relay_payload (
+                    id bigserial PRIMARY KEY,
+                    body text NOT NULL,
+                    created_at timestamp NOT NULL DEFAULT LOCALTIMESTAMP)
+                """);
+        publisherThread.start();
+    }
+
+    @Override
+    public void publish(String message) {
+        if (!outbox.offer(message)) {
+            failed.increment();
+        }
+    }
+
+    @Override
+    public synchronized void listen(Consumer<String> listener) {
+        if (listenerThread != null) throw new IllegalStateException("Already listening on " + channel);
+        listenerThread = new Thread(() -> listenLoop(listener), "ws-cluster-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    // ---- publisher
+
+    private void publishLoop() {
+        List<String> batch = new ArrayList<>(PUBLISH_BATCH);
+        long backoff = 500;
+        while (running || !outbox.isEmpty()) {
+            try (Connection connection = connect()) {
+                backoff = 500;
+                while (running || !outbox.isEmpty()) {
+                    String first = outbox.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    outbox.drainTo(batch, PUBLISH_BATCH - 1);
+                    try {
+                        send(connection, batch);
+                    } catch (SQLException e) {
+                        // the frames are lost; subscribers catch up over REST as after any gap
+                        failed.increment(batch.size());
+                        throw e;
+                    } finally {
+                        batch.clear();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Cluster publisher connection lost, reconnecting in {} ms: {}", backoff, e.getMessage());
+                if (!sleep(backoff)) return;
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // One autocommit statement: SELECT pg_notify(?, ?), pg_notify(?, ?), ... in publish order
+    private void send(Connection connection, List<String> batch) throws SQLException {
+        List<String> notifications = new ArrayList<>(batch.size());
+        for (String message : batch) {
+            String payload = message;
+            if (message.getBytes(StandardCharsets.UTF_8).length > MAX_INLINE_BYTES) {
+                payload = SPILLED + spill(connection, message);
+            }
+            notifications.add((sequence++) + "|" + payload);
+        }
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < notifications.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("pg_notify(?, ?)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < notifications.size(); i++) {
+                ps.setString(2 * i + 1, channel);
+                ps.setString(2 * i + 2, notifications.get(i));
+            }
+            ps.executeQuery().close();
+        }
+    }
+
+    private long spill(Connection connection, String message) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO websocket_relay_payload (body) VALUES (?) RETURNING id")) {
+            ps.setString(1, message);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    // ---- listener
+
+    private void listenLoop(Consumer<String> listener) {
+        long backoff = 500;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cluster broker frames on {}", channel);
+                backoff = 500;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification n : notifications) {
+                        deliver(n.getParameter(), listener);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Cluster listener connection lost, reconnecting in {} ms: {}", backoff, e.getMessage());
+                if (!sleep(backoff)) return;
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void deliver(String notification, Consumer<String> listener) {
+        try {
+            String payload = notification.substring(notification.indexOf('|') + 1);
+            if (!payload.startsWith(SPILLED)) {
+                listener.accept(payload);
+                return;
+            }
+            List<String> body = jdbc.queryForList("SELECT body FROM websocket_relay_payload WHERE id = ?",
+                    String.class, Long.parseLong(payload.substring(SPILLED.length())));
+            if (!body.isEmpty()) listener.accept(body.get(0));
+        } catch (RuntimeException e) {
+            // one bad frame must not stop the listener
+            log.warn("Dropped cluster broker frame: {}", e.getMessage());
+        }
+    }
+
+    // every node has read a spilled frame long before this
+    @Scheduled(fixedDelayString = "${websocket.cluster.payload-cleanup-interval:60000}")
+    public void deleteSpilledPayloads() {
+        jdbc.update("DELETE FROM websocket_relay_payload WHERE created_at < LOCALTIMESTAMP - INTERVAL '5 minutes'");
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSource.determineUrl(),
+                dataSource.determineUsername(), dataSource.determinePassword());
+    }
+
+    private static boolean sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    // Stop listening, then let the publisher flush what is queued
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.join(POLL_MS * 2L);
+        }
+        publisherThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,30 @@
+// backend/src/main/java/NeonSquare/backend/config/SchedulingConfig.java
+package NeonSquare.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled background jobs (counter reconciliation, ...).
+ * Each job reads its own cron/interval from application.properties.
+ * <p>
+ * The STOMP broker registers its own TaskScheduler, which makes Boot back off from creating the
+ * "taskScheduler" bean, so @Scheduled would silently share the broker's heartbeat pool. Declaring it
+ * here keeps the jobs on their own pool sized by spring.task.scheduling.* (or on virtual threads).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder threadPool,
+                                       SimpleAsyncTaskSchedulerBuilder simpleAsync,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads ? simpleAsync.build() : threadPool.build();
+    }
+}
@@ -90,7 +90,7 @@ public class SecurityConfig {
         cfg.setAllowedOriginPatterns(origins.isEmpty() ? List.of("*") : origins);
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "HEAD"));
         cfg.setAllowedHeaders(List.of("*"));
-        cfg.setExposedHeaders(List.of("Location", "Content-Disposition"));
+        cfg.setExposedHeaders(List.of("Location", "Content-Disposition", "X-Next-Cursor"));
         cfg.setAllowCredentials(true);
         cfg.setMaxAge(3600L); // cache preflight for 1 hour
 
@@ -0,0 +1,58 @@
+// backend/src/main/java/NeonSquare/backend/config/StompAuthInterceptor.java
+package NeonSquare.backend.config;
+
+import NeonSquare.backend.services.AuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binds a STOMP session to the user in its CONNECT "Authorization" header, so
+ * /user/queue/... destinations resolve to that user's sessions only.
+ * Connections without a token stay anonymous (public chat topics still work).
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+
+    // Old public per-user topic; pushes now go to /user/queue/notifications
+    private static final String LEGACY_USER_TOPIC = "/topic/user.";
+
+    private final AuthService authService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) return message;
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String token = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+            if (token != null) {
+                UUID userId = authService.resolveUserId(token);
+                if (userId == null) {
+                    throw new MessageDeliveryException("Invalid token");
+                }
+                // the session registry and user destinations key on Principal#getName()
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(LEGACY_USER_TOPIC)) {
+                throw new MessageDeliveryException("Subscribe to /user/queue/notifications instead");
+            }
+        }
+        return message;
+    }
+}
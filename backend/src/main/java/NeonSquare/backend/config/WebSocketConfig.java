@@ -1,25 +1,91 @@
 // backend/src/main/java/NeonSquare/backend/config/WebSocketConfig.java
 package NeonSquare.backend.config;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthInterceptor stompAuthInterceptor;
+    private final WebSocketSessionMonitor sessionMonitor;
+    private final ClusterBrokerRelay clusterRelay;
+
+    // Broker heartbeats need a scheduler; this one is created by the broker config itself
+    private TaskScheduler brokerScheduler;
+
     // Reads from env/property: cors.allowed-origins (e.g. "https://*.vercel.app,http://localhost:3000")
     @Value("${cors.allowed-origins:*}")
     private String allowedOriginsCsv;
 
+    // Same switch Boot uses for Tomcat and @Async, so one flag moves all request work to virtual threads
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Platform-thread mode sizing for the STOMP channels
+    @Value("${websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size:64}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:64}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // Per-session limits: a client that can't keep up is closed instead of buffering without bound
+    @Value("${websocket.session.send-time-limit:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.session.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.session.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.session.time-to-first-message:30000}")
+    private int timeToFirstMessageMs;
+
+    // {server sends every, server expects from client every} in ms; silent sessions are reaped
+    @Value("${websocket.heartbeat.server:10000}")
+    private long heartbeatServerMs;
+
+    @Value("${websocket.heartbeat.client:10000}")
+    private long heartbeatClientMs;
+
+    @Autowired
+    public void setBrokerScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler brokerScheduler) {
+        this.brokerScheduler = brokerScheduler;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // IMPORTANT: split CSV → varargs; passing the CSV string directly won’t match CORS
@@ -32,14 +98,70 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns(
                         patterns.isEmpty() ? new String[]{"*"} : patterns.toArray(new String[0])
                 );
+        // Frames from one session reach @MessageMapping in the order they were sent
+        registry.setPreserveReceiveOrder(true);
         // No SockJS (your frontend uses native ws://.../ws via @stomp/stompjs)
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Clients SUBSCRIBE to /topic/...
-        registry.enableSimpleBroker("/topic");
+        // Clients SUBSCRIBE to /topic/... (shared) and /user/queue/... (their own sessions only)
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeatServerMs, heartbeatClientMs})
+                .setTaskScheduler(brokerScheduler);
+        registry.setUserDestinationPrefix("/user");
+        // Publishes also go to the other nodes when websocket.cluster.transport is set
+        registry.configureBrokerChannel().interceptors(clusterRelay);
         // If you ever SEND from client to server app endpoints, use /app/...
         registry.setApplicationDestinationPrefixes("/app");
+        // ...and broadcasts reach each subscriber in the order they were published
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .setTimeToFirstMessage(timeToFirstMessageMs)
+                .addDecoratorFactory(sessionMonitor);
+    }
+
+    // Inbound runs @MessageMapping handlers, which may block on the database
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthInterceptor);
+        if (!useVirtualThreads(registration, "ws-inbound-")) {
+            registration.taskExecutor()
+                    .corePoolSize(inboundCorePoolSize)
+                    .maxPoolSize(inboundMaxPoolSize)
+                    .queueCapacity(inboundQueueCapacity);
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(sessionMonitor);
+        if (!useVirtualThreads(registration, "ws-outbound-")) {
+            registration.taskExecutor()
+                    .corePoolSize(outboundCorePoolSize)
+                    .maxPoolSize(outboundMaxPoolSize)
+                    .queueCapacity(outboundQueueCapacity);
+        }
+    }
+
+    // One virtual thread per message; receive/publish order is still kept per session (see above)
+    private boolean useVirtualThreads(ChannelRegistration registration, String threadNamePrefix) {
+        if (!virtualThreads) return false;
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            log.warn("spring.threads.virtual.enabled is set but this JVM has no virtual threads; {} stays on a pool",
+                    threadNamePrefix);
+            return false;
+        }
+        registration.executor(executor);
+        return true;
     }
 }
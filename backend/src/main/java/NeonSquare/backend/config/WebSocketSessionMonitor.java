@@ -0,0 +1,128 @@
+// backend/src/main/java/NeonSquare/backend/config/WebSocketSessionMonitor.java
+package NeonSquare.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounting for the per-session send limits (see WebSocketConfig#configureWebSocketTransport).
+ *
+ * Spring closes a session whose send buffer or send time goes over the limit and discards
+ * what was buffered for it; this counts those evictions and the frames lost with them.
+ * Frames still addressed to a closed session are dropped on the outbound channel
+ * instead of being serialized for nobody.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionMonitor implements WebSocketHandlerDecoratorFactory, ChannelInterceptor {
+
+    private final Map<String, SessionCounters> sessions = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter droppedFrames;
+
+    public WebSocketSessionMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.droppedFrames = Counter.builder("websocket.frames.dropped")
+                .description("Outbound STOMP frames never written to their session")
+                .register(meterRegistry);
+        meterRegistry.gauge("websocket.sessions.open", sessions, Map::size);
+    }
+
+    // ---- outbound channel: count offered frames, drop the ones for gone sessions
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) return message;
+        SessionCounters counters = sessions.get(sessionId);
+        if (counters == null) {
+            droppedFrames.increment();
+            return null;
+        }
+        counters.offered.incrementAndGet();
+        return message;
+    }
+
+    // ---- transport: count written frames and classify closes
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionCounters counters = new SessionCounters();
+                sessions.put(session.getId(), counters);
+                super.afterConnectionEstablished(new CountingSession(session, counters));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, status);
+                } finally {
+                    closed(session.getId(), status);
+                }
+            }
+        };
+    }
+
+    private void closed(String sessionId, CloseStatus status) {
+        SessionCounters counters = sessions.remove(sessionId);
+        if (counters == null) return;
+        long lost = counters.offered.get() - counters.written.get();
+        if (lost > 0) droppedFrames.increment(lost);
+
+        String reason = evictionReason(status);
+        if (reason != null) {
+            meterRegistry.counter("websocket.sessions.evicted", "reason", reason).increment();
+            log.debug("WebSocket session {} evicted ({}), {} frames dropped", sessionId, reason, Math.max(lost, 0));
+        }
+    }
+
+    // SESSION_NOT_RELIABLE: send time/buffer limit or no CONNECT in time.
+    // PROTOCOL_ERROR: the broker reaped a session that missed heartbeats, or a rejected frame.
+    private static String evictionReason(CloseStatus status) {
+        if (status.equalsCode(CloseStatus.SESSION_NOT_RELIABLE)) return "limit";
+        if (status.equalsCode(CloseStatus.PROTOCOL_ERROR)) return "protocol";
+        return null;
+    }
+
+    private static final class SessionCounters {
+        final AtomicLong offered = new AtomicLong();
+        final AtomicLong written = new AtomicLong();
+    }
+
+    // Sits under Spring's bounded send decorator, so it only sees frames that got out of the buffer
+    private static final class CountingSession extends WebSocketSessionDecorator {
+        private final SessionCounters counters;
+
+        CountingSession(WebSocketSession delegate, SessionCounters counters) {
+            super(delegate);
+            this.counters = counters;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            counters.written.incrementAndGet();
+        }
+    }
+}
@@ -4,24 +4,46 @@ package NeonSquare.backend.controllers;
 import NeonSquare.backend.dto.ChatMessage;
 import NeonSquare.backend.dto.MessageDTO;
 import NeonSquare.backend.services.ChatService;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Controller
-@RequiredArgsConstructor
 public class ChatController {
     private final SimpMessagingTemplate ws;
     private final ChatService chat;
 
+    // Send futures complete on the chat-writer thread; broadcasting there would hold up the next batch.
+    // One thread keeps broadcasts in commit order; when it falls behind, the writer delivers itself.
+    private final ThreadPoolExecutor delivery;
+
+    public ChatController(SimpMessagingTemplate ws,
+                          ChatService chat,
+                          @Value("${chat.delivery.queue-capacity:10000}") int deliveryQueueCapacity) {
+        this.ws = ws;
+        this.chat = chat;
+        this.delivery = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, deliveryQueueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "chat-delivery");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
     // Client SENDS to:   /app/chat/{conversationId}
     // Everyone SUBSCRIBES: /topic/chat.{conversationId}
     @MessageMapping("/chat/{conversationId}")
@@ -39,20 +61,34 @@ public class ChatController {
             if (msg.getFromUserId() == null) {
                 throw new IllegalArgumentException("fromUserId is required");
             }
-            if (msg.getSentAt() == null) msg.setSentAt(LocalDateTime.now());
 
             UUID convId = UUID.fromString(conversationId);
+            String tempId = msg.getTempId();
 
-            // Persist first
-            MessageDTO saved = chat.saveMessage(convId, msg.getFromUserId(), msg.getContent(), msg.getSentAt());
-            // Echo back the tempId (not stored) so client can replace optimistic bubble
-            saved.setTempId(msg.getTempId());
+            // Persist first (group commit); broadcast once the batch holding this message has committed.
+            // sent_at is stamped by the server so history order matches delivery order.
+            // tempId doubles as the idempotency key: a resend after a reconnect is not stored twice
+            chat.sendMessage(convId, msg.getFromUserId(), msg.getContent(), tempId).whenCompleteAsync((saved, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    log.warn("WS chat send failed: {}", cause.getMessage());
+                    ws.convertAndSend("/topic/chat." + conversationId, new ErrorEnvelope("CHAT_ERROR", cause.getMessage()));
+                    return;
+                }
+                if (saved.isReplay()) {
+                    // already broadcast by the first send; the client reconciles over REST
+                    log.debug("WS chat resend ignored: conv={} msgId={} tempId={}", convId, saved.getId(), tempId);
+                    return;
+                }
+                // Echo back the tempId so client can replace optimistic bubble
+                saved.setTempId(tempId);
 
-            log.info("WS chat persisted: conv={} msgId={} from={} at={}",
-                    convId, saved.getId(), saved.getSenderId(), saved.getSentAt());
+                log.info("WS chat persisted: conv={} msgId={} from={} at={}",
+                        convId, saved.getId(), saved.getSenderId(), saved.getSentAt());
 
-            // Broadcast the saved message (has real id/timestamps)
-            ws.convertAndSend("/topic/chat." + conversationId, saved);
+                // Broadcast the saved message (has real id/timestamps)
+                ws.convertAndSend("/topic/chat." + conversationId, saved);
+            }, delivery);
 
         } catch (Exception e) {
             log.warn("WS chat send failed: {}", e.getMessage());
@@ -61,6 +97,13 @@ public class ChatController {
         }
     }
 
+    // Let queued broadcasts go out before the broker stops
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        delivery.shutdown();
+        delivery.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
     @MessageExceptionHandler
     public void handleWsErrors(Exception e) {
         log.error("STOMP handler error", e);
@@ -2,23 +2,34 @@
 package NeonSquare.backend.controllers;
 
 import NeonSquare.backend.dto.ConversationDTO;
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.ChatSearchHitDTO;
+import NeonSquare.backend.dto.InboxEntryDTO;
 import NeonSquare.backend.dto.MessageDTO;
+import NeonSquare.backend.services.ChatSearchService;
 import NeonSquare.backend.services.ChatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/chat")
 @RequiredArgsConstructor
 public class ChatRestController {
 
+    static final String NEXT_CURSOR_HEADER = PostController.NEXT_CURSOR_HEADER;
+
     private final ChatService chat;
+    private final ChatSearchService search;
     private final SimpMessagingTemplate ws;
 
     // POST /api/chat/conversations?user1=&user2=  -> returns existing or creates new
@@ -33,29 +44,90 @@ public class ChatRestController {
         return chat.listForUser(userId);
     }
 
-    // GET /api/chat/{conversationId}/messages?page=0&size=30
+    // GET /api/chat/inbox/{userId}?cursor=&limit=  -> { items, nextCursor, hasMore }, most recently active first
+    @GetMapping("/inbox/{userId}")
+    public CursorPage<InboxEntryDTO> inbox(@PathVariable UUID userId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        return chat.listInbox(userId, cursor, limit);
+    }
+
+    // GET /api/chat/search/{userId}?q=&cursor=&limit=  -> { items, nextCursor, hasMore }, best match first,
+    // only messages in userId's conversations; highlight is escaped HTML with <mark> around matches
+    @GetMapping("/search/{userId}")
+    public CursorPage<ChatSearchHitDTO> search(@PathVariable UUID userId,
+                                               @RequestParam String q,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        return search.search(userId, q, cursor, limit);
+    }
+
+    // GET /api/chat/{conversationId}/messages?limit=30                  -> latest, newest first
+    // GET /api/chat/{conversationId}/messages?before={messageId}&limit=  -> older, newest first
+    // GET /api/chat/{conversationId}/messages?after={messageId}&limit=   -> newer, oldest first
+    // GET /api/chat/{conversationId}/messages?since={isoTime}&limit=     -> reconnect catch-up, oldest first
+    // Id to continue from is in X-Next-Cursor. page>0 (legacy OFFSET paging) is still accepted.
     @GetMapping("/{conversationId}/messages")
-    public List<MessageDTO> listMessages(@PathVariable UUID conversationId,
-                                         @RequestParam(defaultValue = "0") int page,
-                                         @RequestParam(defaultValue = "30") int size) {
-        return chat.listRecent(conversationId, page, size);
+    public ResponseEntity<List<MessageDTO>> listMessages(@PathVariable UUID conversationId,
+                                                         @RequestParam(required = false) UUID before,
+                                                         @RequestParam(required = false) UUID after,
+                                                         @RequestParam(required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(required = false) Integer size) {
+        Integer pageSize = limit != null ? limit : size;
+        if (page > 0 && before == null && after == null && since == null) {
+            return ResponseEntity.ok(chat.listRecent(conversationId, page, ChatService.clampHistoryPage(pageSize)));
+        }
+        CursorPage<MessageDTO> history = chat.listHistory(conversationId, before, after, since, pageSize);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (history.getNextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, history.getNextCursor());
+        }
+        return ok.body(history.getItems());
     }
 
     // POST /api/chat/{conversationId}/messages  (handy for CLI tests)
     @PostMapping("/{conversationId}/messages")
     public MessageDTO postMessage(@PathVariable UUID conversationId,
                                   @RequestParam UUID senderId,
-                                  @RequestParam String content) {
-        MessageDTO saved = chat.saveMessage(conversationId, senderId, content, LocalDateTime.now());
-        // Broadcast to WS subscribers as well
-        ws.convertAndSend("/topic/chat." + conversationId, saved);
+                                  @RequestParam String content,
+                                  @RequestParam(required = false) String tempId) {
+        MessageDTO saved;
+        try {
+            saved = chat.sendMessage(conversationId, senderId, content, tempId).join();
+        } catch (CompletionException e) {
+            // Bad input -> 400; writer queue full or shutting down -> 503 so clients retry
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalArgumentException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage(), cause);
+            }
+            if (cause instanceof IllegalStateException) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage(), cause);
+            }
+            throw cause instanceof RuntimeException re ? re : e;
+        }
+        saved.setTempId(tempId);
+        // Broadcast to WS subscribers as well, once per message
+        if (!saved.isReplay()) {
+            ws.convertAndSend("/topic/chat." + conversationId, saved);
+        }
         return saved;
     }
 
-    // POST /api/chat/{conversationId}/read?userId=
+    // POST /api/chat/{conversationId}/read?userId=&upTo={messageId}  -> number of messages newly read
+    // upTo defaults to the newest message; receipts go out on /topic/chat.{conversationId}.read
     @PostMapping("/{conversationId}/read")
     public ResponseEntity<Integer> markRead(@PathVariable UUID conversationId,
-                                            @RequestParam UUID userId) {
-        return ResponseEntity.ok(chat.markRead(conversationId, userId));
+                                            @RequestParam UUID userId,
+                                            @RequestParam(required = false) UUID upTo) {
+        return ResponseEntity.ok(chat.markRead(conversationId, userId, upTo));
+    }
+
+    // GET /api/chat/{conversationId}/unread?userId=
+    @GetMapping("/{conversationId}/unread")
+    public ResponseEntity<Long> unreadCount(@PathVariable UUID conversationId, @RequestParam UUID userId) {
+        return ResponseEntity.ok(chat.unreadCount(conversationId, userId));
     }
 }
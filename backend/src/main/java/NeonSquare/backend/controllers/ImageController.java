@@ -2,25 +2,49 @@
 package NeonSquare.backend.controllers;
 
 import NeonSquare.backend.models.Image;
+import NeonSquare.backend.models.ImageVariant;
+import NeonSquare.backend.models.enums.ImageSize;
+import NeonSquare.backend.services.ImageCacheService;
 import NeonSquare.backend.services.ImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/images")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class ImageController {
 
+    // Tomcat's sendfile contract (same one DefaultServlet uses)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMAGE_LEASE = ImageController.class.getName() + ".lease.";
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     private final ImageService imageService;
+    private final ImageCacheService imageCache;
 
-    public ImageController(ImageService imageService) {
+    public ImageController(ImageService imageService, ImageCacheService imageCache) {
         this.imageService = imageService;
+        this.imageCache = imageCache;
     }
 
     @PostMapping("/upload")
@@ -29,13 +53,100 @@ public class ImageController {
         return ResponseEntity.ok("Uploaded image with ID: " + saved.getId());
     }
 
+    /**
+     * Small hot payloads (avatars, group pictures, thumbnails) are answered from ImageCacheService
+     * without touching the database. Other file-backed images are handed to Tomcat's sendfile when
+     * the connector supports it (kernel copy, no user-space buffer); otherwise the Resource is
+     * streamed in small chunks. Either way the payload is never materialized as one byte[].
+     * <p>
+     * Image ids never change content (a new upload gets a new id), so stored payloads carry their
+     * SHA-256 as a strong ETag and are cacheable forever. The one exception is a ?size= whose
+     * derivative has not been built yet: the original stands in with no-cache, so clients and CDNs
+     * revalidate and pick up the derivative (a different ETag) once it exists. Revalidation answers
+     * 304 before any file is opened; Range requests are served as 206 by Spring's ResourceRegion support.
+     */
+    // GET /api/images/{id}?size=avatar|card|full  (omit for the original)
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getImage(@PathVariable UUID id) {
+    public ResponseEntity<Resource> getImage(@PathVariable UUID id,
+                                             @RequestParam(required = false) String size,
+                                             HttpServletRequest request,
+                                             WebRequest webRequest) throws IOException {
+        ImageSize requested = parseSize(size);
+        ImageCacheService.CachedImage hit = imageCache.get(id, requested);
+        if (hit != null) {
+            releaseAfterRequest(hit);
+            if (webRequest.checkNotModified("\"" + hit.etag() + "\"")) return null;
+            return respond(request, hit.openContent(), hit.type(), hit.name(), hit.etag());
+        }
+
         Image image = imageService.getImage(id);
+        ImageVariant variant = requested != null ? imageService.findVariant(id, requested) : null;
+        String contentHash = variant != null ? variant.getStorageKey() : image.getStorageKey();
+
+        if (contentHash != null && webRequest.checkNotModified("\"" + contentHash + "\"")) {
+            return null; // 304 already committed with the ETag
+        }
+
+        Resource content = variant != null ? imageService.openContent(variant) : imageService.openContent(image);
+        String type = variant != null ? variant.getType() : image.getType();
+        if (isProvisional(image, requested, variant)) {
+            return respond(request, content, type, image.getName(), contentHash, CacheControl.noCache());
+        }
+        ImageCacheService.CachedImage cached = imageCache.put(id, requested, content, type, image.getName(), contentHash);
+        if (cached != null) {
+            releaseAfterRequest(cached);
+            content = cached.openContent();
+        }
+        return respond(request, content, type, image.getName(), contentHash);
+    }
+
+    // The body is written after this method returns; the cached buffer must stay ours until then.
+    // The bound request attributes (not the WebRequest argument) are completed by the DispatcherServlet.
+    private static void releaseAfterRequest(ImageCacheService.CachedImage image) {
+        RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                IMAGE_LEASE + System.identityHashCode(image), image::release, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    // A size was asked for but its derivative is not built yet (width is recorded when they are), so
+    // the original stands in. Once built, a size without a variant means the original already fits it.
+    private static boolean isProvisional(Image image, ImageSize requested, ImageVariant variant) {
+        return requested != null && variant == null && image.getWidth() == null;
+    }
+
+    private ResponseEntity<Resource> respond(HttpServletRequest request, Resource content, String type,
+                                             String name, String contentHash) throws IOException {
+        // legacy inline row: no content hash until --migrate-images has run
+        return respond(request, content, type, name, contentHash, contentHash != null ? IMMUTABLE : CacheControl.noCache());
+    }
+
+    private ResponseEntity<Resource> respond(HttpServletRequest request, Resource content, String type,
+                                             String name, String contentHash, CacheControl cacheControl) throws IOException {
+        long length = content.contentLength();
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + name + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(type))
+                .contentLength(length)
+                .cacheControl(cacheControl);
+        if (contentHash != null) ok.eTag(contentHash);
+
+        if (request.getHeader(HttpHeaders.RANGE) == null
+                && content.isFile() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, content.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return ok.build();
+        }
+        return ok.body(content);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + image.getName() + "\"")
-                .contentType(MediaType.parseMediaType(image.getType()))
-                .body(image.getData());
+    private static ImageSize parseSize(String size) {
+        if (size == null || size.isBlank() || size.equalsIgnoreCase("original")) return null;
+        try {
+            return ImageSize.valueOf(size.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size");
+        }
     }
 }
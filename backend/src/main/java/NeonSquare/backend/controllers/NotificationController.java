@@ -5,8 +5,10 @@ import NeonSquare.backend.dto.NotificationDTO;
 import NeonSquare.backend.models.enums.NotificationType;
 import NeonSquare.backend.services.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,11 +17,24 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    // without afterId, every row at `since` itself is sent again rather than possibly skipped
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
     private final NotificationService service;
 
     @GetMapping("/{userId}")
-    public List<NotificationDTO> list(@PathVariable UUID userId) {
-        return service.list(userId);
+    public List<NotificationDTO> list(@PathVariable UUID userId,
+                                      @RequestParam(required = false)
+                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                      @RequestParam(required = false) UUID afterId,
+                                      @RequestParam(required = false) Integer limit) {
+        // ?since=&afterId= (createDate and id of the newest item the client has) is the reconnect
+        // catch-up, oldest first and paged by ?limit=; ?limit= alone is the newest few, newest first
+        if (since != null) {
+            return service.listSince(userId, since, afterId != null ? afterId : MIN_ID,
+                    limit != null ? limit : NotificationService.MAX_CATCH_UP);
+        }
+        return limit == null ? service.list(userId) : service.listNewest(userId, limit);
     }
 
     @GetMapping("/{userId}/count")
@@ -1,12 +1,16 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/controllers/PostController.java
 package NeonSquare.backend.controllers;
 
+import NeonSquare.backend.dto.CursorPage;
 import NeonSquare.backend.dto.PostDTO;
+import NeonSquare.backend.dto.PostFeedRow;
 import NeonSquare.backend.dto.PostRequest;
 import NeonSquare.backend.models.Post;
 import NeonSquare.backend.models.User;
 import NeonSquare.backend.services.ImageService;
+import NeonSquare.backend.services.PostCacheService;
 import NeonSquare.backend.services.PostService;
+import NeonSquare.backend.services.TimelineService;
 import NeonSquare.backend.services.UserService;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,32 +28,65 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/posts")
 public class PostController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ImageService imageService;
     private final PostService postService;
     private final UserService userService;
+    private final TimelineService timelineService;
+    private final PostCacheService postCacheService;
 
     @Autowired
     public PostController(ImageService imageService,
                           PostService postService,
-                          UserService userService) {
+                          UserService userService,
+                          TimelineService timelineService,
+                          PostCacheService postCacheService) {
         this.imageService = imageService;
         this.postService = postService;
         this.userService = userService;
+        this.timelineService = timelineService;
+        this.postCacheService = postCacheService;
     }
 
+    // GET /api/posts?cursor=&limit=&userId=  -> bounded page; next cursor in X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<PostDTO>> getAllFilterPosts() {
-        List<Post> posts = postService.getAllFilterPosts();
-        List<PostDTO> postResponses = posts.stream()
-            .map(PostDTO::new)
+    public ResponseEntity<List<PostDTO>> getAllFilterPosts(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) UUID userId) {
+        CursorPage<PostDTO> page = getFeed(cursor, limit, userId).getBody();
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return ok.body(page.getItems());
+    }
+
+    // GET /api/posts/feed?cursor=&limit=&userId=  -> { items, nextCursor, hasMore }
+    // public posts only; userId is the viewer and drives viewerReaction (own and friends' posts: /timeline)
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<PostDTO>> getFeed(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestParam(required = false) UUID userId) {
+        return ResponseEntity.ok(postCacheService.getFeed(cursor, limit, userId));
+    }
+
+    // GET /api/posts/timeline?userId=&cursor=&limit=  -> the user's own + friends' posts
+    @GetMapping("/timeline")
+    public ResponseEntity<CursorPage<PostDTO>> getTimeline(@RequestParam UUID userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        CursorPage<PostFeedRow> page = timelineService.getTimeline(userId, cursor, limit);
+        List<PostDTO> items = page.getItems().stream()
+            .map(row -> new PostDTO(row, userId))
             .collect(Collectors.toList());
-        return ResponseEntity.ok(postResponses);
+        return ResponseEntity.ok(new CursorPage<>(items, page.getNextCursor()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable UUID id) {
-        Post post = postService.getPost(id);
-        return ResponseEntity.ok(new PostDTO(post));
+    public ResponseEntity<PostDTO> getPostById(@PathVariable UUID id,
+                                               @RequestParam(required = false) UUID userId) {
+        return ResponseEntity.ok(postCacheService.getPost(id, userId));
     }
 
     @PostMapping
@@ -64,10 +64,7 @@ public class ReactionController {
             // Reaction has no post field — fine.
         }
 
-        r = reactionService.createReaction(r);
-
-        post.getReactions().add(r);
-        postService.updatePost(post);
+        r = reactionService.addReactionToPost(post, r);
 
         if (post.getAuthor() != null && post.getAuthor().getId() != null && !post.getAuthor().getId().equals(userId)) {
             String who = ((user.getFirstName() == null ? "" : user.getFirstName()) + " " +
@@ -0,0 +1,17 @@
+// backend/src/main/java/NeonSquare/backend/dto/ChatSearchHitDTO.java
+package NeonSquare.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ChatSearchHitDTO {
+    private UUID messageId;
+    private UUID conversationId;
+    private UUID senderId;
+    private LocalDateTime sentAt;
+    // message excerpt, matches wrapped in <mark>...</mark>; everything else is HTML-escaped
+    private String highlight;
+}
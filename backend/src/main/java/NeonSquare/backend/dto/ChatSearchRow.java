@@ -0,0 +1,18 @@
+// backend/src/main/java/NeonSquare/backend/dto/ChatSearchRow.java
+package NeonSquare.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One chat search hit, from the native queries in ChatMessageRepository (see SEARCH_SELECT).
+ * highlight is an excerpt of the message with matches wrapped in <mark>...</mark>.
+ */
+public interface ChatSearchRow {
+    UUID getId();
+    UUID getConversationId();
+    UUID getSenderId();
+    LocalDateTime getSentAt();
+    Float getRank();
+    String getHighlight();
+}
@@ -12,6 +12,8 @@ public class CommentDTO {
     private UUID userId;
     private UUID postId;
     private LocalDateTime createdAt;
+    private int replyCount;
+    private int reactionCount;
 
 
     public CommentDTO(Comment comment){
@@ -20,6 +22,8 @@ public class CommentDTO {
         this.userId = comment.getAuthor().getId();
         this.postId = comment.getPost().getId();
         this.createdAt = comment.getCreatedAt();
+        this.replyCount = comment.getReplyCount();
+        this.reactionCount = comment.getReactionCount();
     }
     public UUID getId() {
         return id;
@@ -60,4 +64,20 @@ public class CommentDTO {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public int getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(int replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public int getReactionCount() {
+        return reactionCount;
+    }
+
+    public void setReactionCount(int reactionCount) {
+        this.reactionCount = reactionCount;
+    }
 }
@@ -0,0 +1,10 @@
+// backend/src/main/java/NeonSquare/backend/dto/ConversationParticipants.java
+package NeonSquare.backend.dto;
+
+import java.util.UUID;
+
+/** The two users of a conversation (see ConversationRepository#findParticipants). */
+public interface ConversationParticipants {
+    UUID getUserAId();
+    UUID getUserBId();
+}
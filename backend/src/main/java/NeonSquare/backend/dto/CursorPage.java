@@ -0,0 +1,26 @@
+// backend/src/main/java/NeonSquare/backend/dto/CursorPage.java
+package NeonSquare.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextCursor is null when there is nothing after this page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
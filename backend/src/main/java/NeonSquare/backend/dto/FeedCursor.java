@@ -0,0 +1,33 @@
+// backend/src/main/java/NeonSquare/backend/dto/FeedCursor.java
+package NeonSquare.backend.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position: (timestamp, id) of the last row on the previous page.
+ * Clients just echo the token back; the encoding is not part of the API.
+ */
+public record FeedCursor(LocalDateTime at, UUID id) {
+
+    public String encode() {
+        String raw = at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor");
+        }
+    }
+}
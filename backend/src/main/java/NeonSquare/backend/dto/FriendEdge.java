@@ -0,0 +1,10 @@
+// backend/src/main/java/NeonSquare/backend/dto/FriendEdge.java
+package NeonSquare.backend.dto;
+
+import java.util.UUID;
+
+/** One direction of an accepted friendship (see FriendshipRepository#findAcceptedFriendEdges). */
+public interface FriendEdge {
+    UUID getUserId();
+    UUID getFriendId();
+}
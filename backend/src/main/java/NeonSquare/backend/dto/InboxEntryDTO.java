@@ -0,0 +1,18 @@
+// backend/src/main/java/NeonSquare/backend/dto/InboxEntryDTO.java
+package NeonSquare.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class InboxEntryDTO {
+    private UUID conversationId;
+    private UserDTO peer;
+    private UUID lastMessageId;
+    private UUID lastMessageSenderId;
+    private String lastMessagePreview;
+    private LocalDateTime lastMessageAt;
+    private long unreadCount;
+}
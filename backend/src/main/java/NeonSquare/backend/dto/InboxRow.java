@@ -0,0 +1,29 @@
+// backend/src/main/java/NeonSquare/backend/dto/InboxRow.java
+package NeonSquare.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat read model for one inbox entry.
+ * Filled by a single native query in ConversationRepository (see INBOX_ROW_SELECT).
+ */
+public interface InboxRow {
+    UUID getConversationId();
+    LocalDateTime getActivityAt();
+
+    UUID getPeerId();
+    String getPeerFirstName();
+    String getPeerLastName();
+    String getPeerEmail();
+    Integer getPeerStatus();
+    UUID getPeerProfilePicId();
+
+    // all null for a conversation without messages
+    UUID getLastMessageId();
+    UUID getLastMessageSenderId();
+    String getLastMessagePreview();
+    LocalDateTime getLastMessageAt();
+
+    Long getUnreadCount();
+}
@@ -1,6 +1,7 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/dto/MessageDTO.java  
 package NeonSquare.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -16,4 +17,8 @@ public class MessageDTO {
 
     // NEW: not stored in DB, just echoed so client can replace optimistic message
     private String tempId;
+
+    // Server-side only: this answers a resend of an already stored message (same sender and tempId)
+    @JsonIgnore
+    private boolean replay;
 }
@@ -3,8 +3,12 @@ package NeonSquare.backend.dto;
 
 import NeonSquare.backend.models.Post;
 import NeonSquare.backend.models.enums.PostVisibility;
+import NeonSquare.backend.models.enums.ReactionType;
+import NeonSquare.backend.models.enums.UserStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +22,7 @@ public class PostDTO {
     private List<String> imageUrls;
     private int commentCount;
     private int reactionCount;
+    private ReactionType viewerReaction;
 
     public PostDTO(Post post){
         id = post.getId();
@@ -26,11 +31,72 @@ public class PostDTO {
         visibility = post.getVisibility();
         updateAt = post.getUpdatedAt() != null ? post.getUpdatedAt().toLocalDate() : null;
         imageUrls = post.getImages() != null ? post.getImages().stream().map(image -> "/api/images/" + image.getId()).toList() : List.of();
-        commentCount = post.getComments() != null ? post.getComments().size() : 0;
-        reactionCount = post.getReactions() != null ? post.getReactions().size() : 0;
+        commentCount = post.getCommentCount();
+        reactionCount = post.getReactionCount();
         reactions = post.getReactions() != null ? post.getReactions().stream().map(reaction -> new ReactionDTO(reaction)).toList() : List.of();
     }
 
+    /**
+     * Feed/detail read path. Counts come from the query; reactions only carries the
+     * viewer's own reaction (the full list lives at /api/posts/{id}/reactions).
+     */
+    public PostDTO(PostFeedRow row, UUID viewerId){
+        id = row.getId();
+        text = row.getContent();
+        if (row.getAuthorId() != null) {
+            author = new UserDTO(row.getAuthorId(), row.getAuthorFirstName(), row.getAuthorLastName(),
+                    row.getAuthorEmail(), enumAt(UserStatus.values(), row.getAuthorStatus()),
+                    row.getAuthorProfilePicId());
+        }
+        visibility = enumAt(PostVisibility.values(), row.getVisibility());
+        updateAt = row.getUpdatedAt() != null ? row.getUpdatedAt().toLocalDate() : null;
+        imageUrls = row.getImageIds() != null
+                ? Arrays.stream(row.getImageIds().split(",")).map(imageId -> "/api/images/" + imageId).toList()
+                : List.of();
+        commentCount = row.getCommentCount() != null ? row.getCommentCount().intValue() : 0;
+        reactionCount = row.getReactionCount() != null ? row.getReactionCount().intValue() : 0;
+        viewerReaction = enumAt(ReactionType.values(), row.getViewerReaction());
+        if (viewerReaction != null) {
+            ReactionDTO mine = new ReactionDTO(viewerReaction, viewerId, row.getViewerReactedAt());
+            mine.setId(row.getViewerReactionId());
+            reactions = List.of(mine);
+        } else {
+            reactions = List.of();
+        }
+    }
+
+    private PostDTO(PostDTO other) {
+        id = other.id;
+        text = other.text;
+        author = other.author;
+        visibility = other.visibility;
+        updateAt = other.updateAt;
+        reactions = other.reactions;
+        imageUrls = other.imageUrls;
+        commentCount = other.commentCount;
+        reactionCount = other.reactionCount;
+        viewerReaction = other.viewerReaction;
+    }
+
+    /**
+     * Copy of a viewer-independent DTO (built with no viewer) carrying one viewer's reaction.
+     * Cached instances are shared, so they are never modified in place.
+     */
+    public PostDTO withViewerReaction(Integer type, UUID reactionId, LocalDateTime reactedAt, UUID viewerId) {
+        PostDTO copy = new PostDTO(this);
+        copy.viewerReaction = enumAt(ReactionType.values(), type);
+        if (copy.viewerReaction != null) {
+            ReactionDTO mine = new ReactionDTO(copy.viewerReaction, viewerId, reactedAt);
+            mine.setId(reactionId);
+            copy.reactions = List.of(mine);
+        }
+        return copy;
+    }
+
+    private static <E> E enumAt(E[] values, Integer ordinal) {
+        return ordinal != null && ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -102,4 +168,12 @@ public class PostDTO {
     public void setReactions(List<ReactionDTO> reactions) {
         this.reactions = reactions;
     }
+
+    public ReactionType getViewerReaction() {
+        return viewerReaction;
+    }
+
+    public void setViewerReaction(ReactionType viewerReaction) {
+        this.viewerReaction = viewerReaction;
+    }
 }
@@ -0,0 +1,34 @@
+// backend/src/main/java/NeonSquare/backend/dto/PostFeedRow.java
+package NeonSquare.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat read model for one post in the feed / detail view.
+ * Filled by a single native query in PostRepository (see FEED_ROW_SELECT).
+ */
+public interface PostFeedRow {
+    UUID getId();
+    String getContent();
+    Integer getVisibility();
+    LocalDateTime getUpdatedAt();
+
+    UUID getAuthorId();
+    String getAuthorFirstName();
+    String getAuthorLastName();
+    String getAuthorEmail();
+    Integer getAuthorStatus();
+    UUID getAuthorProfilePicId();
+
+    Long getCommentCount();
+    Long getReactionCount();
+
+    // ReactionType ordinal of the viewer's newest reaction, null if none / no viewer
+    Integer getViewerReaction();
+    UUID getViewerReactionId();
+    LocalDateTime getViewerReactedAt();
+
+    // comma-separated image ids, null when the post has no images
+    String getImageIds();
+}
@@ -0,0 +1,14 @@
+// backend/src/main/java/NeonSquare/backend/dto/PresenceDTO.java
+package NeonSquare.backend.dto;
+
+import NeonSquare.backend.models.enums.UserStatus;
+import lombok.*;
+
+import java.util.UUID;
+
+/** A friend went online or offline; pushed in batches to /user/queue/presence. */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class PresenceDTO {
+    private UUID userId;
+    private UserStatus status;
+}
@@ -0,0 +1,32 @@
+// backend/src/main/java/NeonSquare/backend/dto/SearchCursor.java
+package NeonSquare.backend.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position in a ranked search: (rank, id) of the last hit on the previous page.
+ * Same encoding rules as FeedCursor; the rank round-trips exactly as a float.
+ */
+public record SearchCursor(float rank, UUID id) {
+
+    public String encode() {
+        String raw = rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new SearchCursor(Float.parseFloat(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor");
+        }
+    }
+}
@@ -2,6 +2,7 @@
 package NeonSquare.backend.dto;
 
 import NeonSquare.backend.models.User;
+import NeonSquare.backend.models.enums.UserStatus;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -28,6 +29,18 @@ public class UserDTO {
         }
     }
 
+    // Summary built from a projection row, no entity required
+    public UserDTO(UUID id, String firstName, String lastName, String email, UserStatus status, UUID profilePicId) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.status = status != null ? status.toString() : null;
+        if (profilePicId != null) {
+            this.profilePicUrl = "/api/images/" + profilePicId;
+        }
+    }
+
     public UUID getId() {
         return id;
     }
@@ -0,0 +1,8 @@
+// backend/src/main/java/NeonSquare/backend/events/ConversationReadEvent.java
+package NeonSquare.backend.events;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** A participant's read watermark moved forward. */
+public record ConversationReadEvent(UUID conversationId, UUID userId, UUID lastReadMessageId, LocalDateTime lastReadAt) {}
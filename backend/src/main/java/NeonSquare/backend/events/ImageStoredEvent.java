@@ -0,0 +1,8 @@
+// backend/src/main/java/NeonSquare/backend/events/ImageStoredEvent.java
+package NeonSquare.backend.events;
+
+import java.util.UUID;
+
+/** New or replaced image content was committed; derivatives need (re)building. */
+public record ImageStoredEvent(UUID imageId) {
+}
@@ -0,0 +1,11 @@
+// backend/src/main/java/NeonSquare/backend/events/PostChangedEvent.java
+package NeonSquare.backend.events;
+
+import java.util.UUID;
+
+/**
+ * Something visible on a post changed (edit, delete, new comment, like/unlike).
+ * Read-side caches listen for this after the change commits.
+ */
+public record PostChangedEvent(UUID postId) {
+}
@@ -0,0 +1,11 @@
+// backend/src/main/java/NeonSquare/backend/events/PostCreatedEvent.java
+package NeonSquare.backend.events;
+
+import NeonSquare.backend.models.enums.PostVisibility;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Published by PostService.createPost; listeners run after the insert commits. */
+public record PostCreatedEvent(UUID postId, UUID authorId, PostVisibility visibility, LocalDateTime createdAt) {
+}
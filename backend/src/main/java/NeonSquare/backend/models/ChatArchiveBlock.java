@@ -0,0 +1,45 @@
+// backend/src/main/java/NeonSquare/backend/models/ChatArchiveBlock.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The messages of one conversation from one archived partition, encoded by ChatArchiveCodec.
+ * Keyed conversation first, so a history read finds all of a conversation's blocks in one
+ * index range. Written and read by ChatArchiveService with plain SQL.
+ */
+@Entity
+@Table(name = "chat_archive_block")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ChatArchiveBlock {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "first_sent_at", nullable = false)
+    private LocalDateTime firstSentAt;
+
+    @Column(name = "last_sent_at", nullable = false)
+    private LocalDateTime lastSentAt;
+
+    @Column(name = "message_count", nullable = false)
+    private int messageCount;
+
+    @Column(name = "data", nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    @Embeddable
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "conversation_id", nullable = false)
+        private UUID conversationId;
+
+        @Column(name = "partition_name", nullable = false, length = 63)
+        private String partitionName;
+    }
+}
@@ -0,0 +1,40 @@
+// backend/src/main/java/NeonSquare/backend/models/ChatArchiveSegment.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One archived chat_message partition. Its messages live on as compressed per-conversation
+ * chat_archive_block rows written in the same transaction that dropped the partition, so every
+ * node sees the archive as soon as the partition is gone.
+ */
+@Entity
+@Table(name = "chat_archive_segment")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ChatArchiveSegment {
+
+    @Id
+    @Column(name = "partition_name", length = 63)
+    private String partitionName;
+
+    // oldest message in the segment; null when the partition was empty
+    @Column(name = "first_sent_at")
+    private LocalDateTime firstSentAt;
+
+    // exclusive upper bound of the partition; every message in it is older
+    @Column(name = "sent_before", nullable = false)
+    private LocalDateTime sentBefore;
+
+    @Column(name = "message_count", nullable = false)
+    private long messageCount;
+
+    // compressed size of its blocks
+    @Column(name = "byte_size", nullable = false)
+    private long byteSize;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
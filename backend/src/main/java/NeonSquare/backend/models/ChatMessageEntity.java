@@ -10,7 +10,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "chat_message", indexes = {
-        @Index(name = "idx_chat_message_conversation", columnList = "conversation_id, sent_at DESC")
+        @Index(name = "idx_chat_message_conversation", columnList = "conversation_id, sent_at DESC"),
+        // covers the watermark unread count without heap fetches
+        @Index(name = "idx_chat_message_unread", columnList = "conversation_id, sent_at, id, sender_id")
 })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ChatMessageEntity {
@@ -26,12 +28,16 @@ public class ChatMessageEntity {
     @JoinColumn(name = "sender_id", nullable = false)
     private User sender;
 
+    // Also indexed as content_tsv = to_tsvector('simple', content) for search. That column and its
+    // GIN index are created by ChatSearchService and filled by ChatMessageWriter; not mapped here
+    // so ordinary reads never load the vector.
     @Column(columnDefinition = "text", nullable = false)
     private String content;
 
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
 
+    // Legacy per-message flag, no longer written; read state lives in ConversationRead watermarks
     @Column(name = "is_read", nullable = false)
     private boolean read;
 
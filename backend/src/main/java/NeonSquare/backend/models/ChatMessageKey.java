@@ -0,0 +1,47 @@
+// backend/src/main/java/NeonSquare/backend/models/ChatMessageKey.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Idempotency key of a chat send: the client's tempId, unique per sender. A resend with a key
+ * that is already here is answered with the stored message instead of a second insert.
+ * Written by ChatMessageWriter in the message's transaction; pruned after chat.dedup.retention.
+ * No foreign key to chat_message, whose rows move between partitions and the archive.
+ */
+@Entity
+@Table(name = "chat_message_key",
+       indexes = @Index(name = "idx_chat_message_key_created", columnList = "created_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ChatMessageKey {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "message_id", nullable = false)
+    private UUID messageId;
+
+    @Column(name = "conversation_id", nullable = false)
+    private UUID conversationId;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Embeddable
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "sender_id", nullable = false)
+        private UUID senderId;
+
+        @Column(name = "client_key", nullable = false, length = 64)
+        private String clientKey;
+    }
+}
@@ -4,6 +4,7 @@ import NeonSquare.backend.models.enums.Status;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
@@ -49,6 +50,14 @@ public class Comment {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Maintained by atomic UPDATEs in CommentRepository only
+    @ColumnDefault("0")
+    @Column(name = "reply_count", nullable = false, insertable = false, updatable = false)
+    private int replyCount;
+
+    @ColumnDefault("0")
+    @Column(name = "reaction_count", nullable = false, insertable = false, updatable = false)
+    private int reactionCount;
 
     public UUID getId() {
         return id;
@@ -105,4 +114,12 @@ public class Comment {
     public void setComment(Comment comment) {
         this.comment = comment;
     }
+
+    public int getReplyCount() {
+        return replyCount;
+    }
+
+    public int getReactionCount() {
+        return reactionCount;
+    }
 }
@@ -10,7 +10,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "conversation",
-       uniqueConstraints = @UniqueConstraint(name = "uk_conversation_pair", columnNames = {"user_a_id","user_b_id"}))
+       uniqueConstraints = @UniqueConstraint(name = "uk_conversation_pair", columnNames = {"user_a_id","user_b_id"}),
+       indexes = {
+               @Index(name = "idx_conversation_user_a_activity", columnList = "user_a_id, last_message_at DESC, id DESC"),
+               @Index(name = "idx_conversation_user_b_activity", columnList = "user_b_id, last_message_at DESC, id DESC")
+       })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Conversation {
     @Id @GeneratedValue @UuidGenerator
@@ -27,6 +31,17 @@ public class Conversation {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Denormalized newest message, maintained by ChatMessageWriter in the same transaction as the insert.
+    // last_message_at starts at created_at so the inbox can order by it alone.
+    @Column(name = "last_message_at", nullable = false, updatable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "last_message_id", insertable = false, updatable = false)
+    private UUID lastMessageId;
+
     @PrePersist
-    void pre() { if (createdAt == null) createdAt = LocalDateTime.now(); }
+    void pre() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (lastMessageAt == null) lastMessageAt = createdAt;
+    }
 }
@@ -0,0 +1,51 @@
+// backend/src/main/java/NeonSquare/backend/models/ConversationRead.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read watermark: the newest message (by sent_at, id) a participant has seen in a conversation.
+ * Everything at or before it counts as read for that participant; it only ever moves forward.
+ */
+@Entity
+@Table(name = "conversation_read")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ConversationRead {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "last_read_at", nullable = false)
+    private LocalDateTime lastReadAt;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private UUID lastReadMessageId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /** True if the message at (sentAt, messageId) is at or before this watermark. */
+    public boolean covers(LocalDateTime sentAt, UUID messageId) {
+        int cmp = sentAt.compareTo(lastReadAt);
+        if (cmp != 0) return cmp < 0;
+        // Postgres orders uuid bytewise, i.e. as unsigned halves (UUID.compareTo is signed)
+        int hi = Long.compareUnsigned(messageId.getMostSignificantBits(), lastReadMessageId.getMostSignificantBits());
+        if (hi != 0) return hi < 0;
+        return Long.compareUnsigned(messageId.getLeastSignificantBits(), lastReadMessageId.getLeastSignificantBits()) <= 0;
+    }
+
+    @Embeddable
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "conversation_id", nullable = false)
+        private UUID conversationId;
+
+        @Column(name = "user_id", nullable = false)
+        private UUID userId;
+    }
+}
@@ -0,0 +1,23 @@
+// backend/src/main/java/NeonSquare/backend/models/DataMigration.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker for a one-time data backfill that has completed; startup skips backfills that have one.
+ */
+@Entity
+@Table(name = "data_migration")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class DataMigration {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
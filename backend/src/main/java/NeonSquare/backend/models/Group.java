@@ -29,7 +29,7 @@ public class Group {
     @Column(length = 1000)
     private String description;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private Image groupPic;
 
     @Enumerated(EnumType.ORDINAL)
@@ -1,18 +1,29 @@
 // backend/src/main/java/NeonSquare/backend/models/Image.java
 package NeonSquare.backend.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.UuidGenerator;
 
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Image metadata. The payload lives in ImageStorage under storageKey; rows created before that
+ * still carry inline bytes in the same table, mapped separately by ImageContent.
+ */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
+@Table(name = "image", indexes = {
+        @Index(name = "idx_image_storage_key", columnList = "storage_key")
+})
 public class Image {
     @Id
     @GeneratedValue
@@ -21,11 +32,25 @@ public class Image {
 
     private String name;
 
-    @Lob
-    private byte[] data;
-
     private String type;
 
+    // Content address (SHA-256 hex) in ImageStorage
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    @Column(name = "byte_size")
+    private Long byteSize;
+
+    // Filled in by ImageDerivativeService once the original has been decoded
+    private Integer width;
+
+    private Integer height;
+
+    @OneToMany(mappedBy = "image", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @JsonIgnore
+    private List<ImageVariant> variants;
+
     public UUID getId() {
         return id;
     }
@@ -42,14 +67,6 @@ public class Image {
         this.name = name;
     }
 
-    public byte[] getData() {
-        return data;
-    }
-
-    public void setData(byte[] data) {
-        this.data = data;
-    }
-
     public String getType() {
         return type;
     }
@@ -57,4 +74,20 @@ public class Image {
     public void setType(String type) {
         this.type = type;
     }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public Long getByteSize() {
+        return byteSize;
+    }
+
+    public void setByteSize(Long byteSize) {
+        this.byteSize = byteSize;
+    }
 }
@@ -0,0 +1,32 @@
+// backend/src/main/java/NeonSquare/backend/models/ImageBlob.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per distinct payload in ImageStorage, keyed by its SHA-256.
+ * Image and ImageVariant rows point at a blob by storage_key; ref_count tracks how many do,
+ * so identical uploads share one stored file and the file goes away with its last reference.
+ */
+@Entity
+@Table(name = "image_blob")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ImageBlob {
+
+    @Id
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    @Column(name = "byte_size", nullable = false)
+    private long byteSize;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    // last time an upload took a reference; the sweeper leaves recently touched blobs alone
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+}
@@ -0,0 +1,28 @@
+// backend/src/main/java/NeonSquare/backend/models/ImageContent.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of the legacy inline payload column of the image table.
+ * Kept out of Image so that loading image metadata (profile pictures, post images, group pictures)
+ * never pulls the bytes; only ImageService.openContent reads this, for rows not yet moved to ImageStorage.
+ */
+@Entity
+@Immutable
+@Table(name = "image")
+@Getter
+@NoArgsConstructor
+public class ImageContent {
+
+    @Id
+    private UUID id;
+
+    @Lob
+    private byte[] data;
+}
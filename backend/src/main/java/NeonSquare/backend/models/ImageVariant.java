@@ -0,0 +1,42 @@
+// backend/src/main/java/NeonSquare/backend/models/ImageVariant.java
+package NeonSquare.backend.models;
+
+import NeonSquare.backend.models.enums.ImageSize;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.util.UUID;
+
+/** A downscaled rendition of an Image, stored in ImageStorage like the original. */
+@Entity
+@Table(name = "image_variant",
+       uniqueConstraints = @UniqueConstraint(name = "uk_image_variant", columnNames = {"image_id", "size"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+@ToString(exclude = "image")
+public class ImageVariant {
+
+    @Id @GeneratedValue @UuidGenerator
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "image_id", nullable = false)
+    private Image image;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "size", nullable = false, length = 16)
+    private ImageSize size;
+
+    @Column(name = "storage_key", nullable = false, length = 64)
+    private String storageKey;
+
+    @Column(name = "byte_size", nullable = false)
+    private long byteSize;
+
+    @Column(nullable = false)
+    private String type;
+
+    private int width;
+
+    private int height;
+}
@@ -14,7 +14,9 @@ import java.util.UUID;
 @Table(
     name = "notification",
     indexes = {
-        @Index(name = "idx_notification_user_id", columnList = "user_id")
+        @Index(name = "idx_notification_user_id", columnList = "user_id"),
+        // reconnect catch-up: user_id = ? AND create_date > ?
+        @Index(name = "idx_notification_user_created", columnList = "user_id, create_date")
     }
 )
 @Getter
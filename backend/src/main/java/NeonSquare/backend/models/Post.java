@@ -5,6 +5,7 @@ import NeonSquare.backend.models.enums.PostVisibility;
 import NeonSquare.backend.models.enums.Status;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
@@ -17,6 +18,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
+@Table(name = "post", indexes = {
+        @Index(name = "idx_post_updated_at_id", columnList = "updated_at DESC, id DESC"),
+        @Index(name = "idx_post_author_created", columnList = "author_id, created_at DESC, id DESC")
+})
 public class Post {
     @Id
     @GeneratedValue
@@ -64,6 +69,24 @@ public class Post {
     )
     private List<Image> images;
 
+    // Denormalized counters: maintained only by atomic UPDATEs in PostRepository,
+    // never written back from a (possibly stale) entity.
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private int commentCount;
+
+    @ColumnDefault("0")
+    @Column(name = "reaction_count", nullable = false, insertable = false, updatable = false)
+    private int reactionCount;
+
+    @PrePersist
+    void prePersist() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) createdAt = now;
+        if (updatedAt == null) updatedAt = now;
+        if (visibility == null) visibility = PostVisibility.PUBLIC;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -151,4 +174,12 @@ public class Post {
     public void setImages(List<Image> images) {
         this.images = images;
     }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public int getReactionCount() {
+        return reactionCount;
+    }
 }
@@ -0,0 +1,37 @@
+// backend/src/main/java/NeonSquare/backend/models/PresenceSession.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One application node has at least one open STOMP session of a user. A user is online while any
+ * of their rows is unexpired; each node keeps its rows alive with a heartbeat, so the rows of a
+ * node that died expire on their own. Maintained by PresenceService with plain SQL.
+ */
+@Entity
+@Table(name = "presence_session",
+       indexes = @Index(name = "idx_presence_session_user", columnList = "user_id, expires_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class PresenceSession {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Embeddable
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "node_id", nullable = false)
+        private UUID nodeId;
+
+        @Column(name = "user_id", nullable = false)
+        private UUID userId;
+    }
+}
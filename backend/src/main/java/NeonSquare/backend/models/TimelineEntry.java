@@ -0,0 +1,41 @@
+// backend/src/main/java/NeonSquare/backend/models/TimelineEntry.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One post id in one user's personal timeline (fan-out-on-write).
+ * Plain id columns, no associations: rows are written in bulk and read by range scan only.
+ */
+@Entity
+@Table(name = "timeline_entry", indexes = {
+        @Index(name = "idx_timeline_owner_posted", columnList = "owner_id, posted_at DESC, post_id DESC"),
+        @Index(name = "idx_timeline_post", columnList = "post_id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class TimelineEntry {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @Embeddable
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Column(name = "owner_id", nullable = false)
+        private UUID ownerId;
+
+        @Column(name = "post_id", nullable = false)
+        private UUID postId;
+    }
+}
@@ -0,0 +1,25 @@
+// backend/src/main/java/NeonSquare/backend/models/TimelinePullAuthor.java
+package NeonSquare.backend.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Authors with too many friends to fan out on write.
+ * Their posts are merged into friends' timelines at read time instead.
+ */
+@Entity
+@Table(name = "timeline_pull_author")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class TimelinePullAuthor {
+
+    @Id
+    @Column(name = "author_id")
+    private UUID authorId;
+
+    @Column(name = "since", nullable = false)
+    private LocalDateTime since;
+}
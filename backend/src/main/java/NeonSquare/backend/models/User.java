@@ -30,7 +30,7 @@ public class User {
 
     private String password;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private Image profilePic;
 
     @ManyToMany(mappedBy = "members")
@@ -0,0 +1,19 @@
+// backend/src/main/java/NeonSquare/backend/models/enums/ImageSize.java
+package NeonSquare.backend.models.enums;
+
+/** Derivative sizes, bounded by the longest edge in pixels. */
+public enum ImageSize {
+    AVATAR(64),
+    CARD(320),
+    FULL(1080);
+
+    private final int maxEdge;
+
+    ImageSize(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+}
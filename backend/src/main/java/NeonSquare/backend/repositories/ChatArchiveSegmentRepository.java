@@ -0,0 +1,17 @@
+// backend/src/main/java/NeonSquare/backend/repositories/ChatArchiveSegmentRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.ChatArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChatArchiveSegmentRepository extends JpaRepository<ChatArchiveSegment, String> {
+
+    // Everything before this is archived; null when nothing is
+    @Query("SELECT max(s.sentBefore) FROM ChatArchiveSegment s")
+    LocalDateTime findArchivedBefore();
+}
@@ -1,14 +1,115 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/repositories/ChatMessageRepository.java
 package NeonSquare.backend.repositories;
 
+import NeonSquare.backend.dto.ChatSearchRow;
 import NeonSquare.backend.models.ChatMessageEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity, UUID> {
     List<ChatMessageEntity> findByConversation_IdOrderBySentAtDesc(UUID conversationId, Pageable pageable);
-    long countByConversation_IdAndReadFalseAndSender_IdNot(UUID conversationId, UUID excludeSenderId);
+
+    // --- keyset history on (sent_at, id), served by idx_chat_message_unread in each partition ---
+
+    @Query(value = """
+            SELECT * FROM chat_message
+            WHERE conversation_id = :conversationId
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessageEntity> findLatest(@Param("conversationId") UUID conversationId, @Param("limit") int limit);
+
+    // Position of a history cursor; probes each partition's primary key (id, sent_at)
+    @Query("SELECT m.sentAt FROM ChatMessageEntity m WHERE m.conversation.id = :conversationId AND m.id = :id")
+    Optional<LocalDateTime> findSentAt(@Param("conversationId") UUID conversationId, @Param("id") UUID id);
+
+    // Older than (at, id), newest first. The plain sent_at bound is what lets Postgres prune partitions.
+    @Query(value = """
+            SELECT * FROM chat_message
+            WHERE conversation_id = :conversationId
+              AND sent_at <= :at AND (sent_at, id) < (:at, :id)
+            ORDER BY sent_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessageEntity> findBefore(@Param("conversationId") UUID conversationId,
+                                       @Param("at") LocalDateTime at,
+                                       @Param("id") UUID id,
+                                       @Param("limit") int limit);
+
+    // Newer than (at, id), oldest first
+    @Query(value = """
+            SELECT * FROM chat_message
+            WHERE conversation_id = :conversationId
+              AND sent_at >= :at AND (sent_at, id) > (:at, :id)
+            ORDER BY sent_at, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessageEntity> findAfter(@Param("conversationId") UUID conversationId,
+                                      @Param("at") LocalDateTime at,
+                                      @Param("id") UUID id,
+                                      @Param("limit") int limit);
+
+    // Reconnect catch-up by time, oldest first
+    @Query(value = """
+            SELECT * FROM chat_message
+            WHERE conversation_id = :conversationId AND sent_at > :since
+            ORDER BY sent_at, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChatMessageEntity> findSince(@Param("conversationId") UUID conversationId,
+                                      @Param("since") LocalDateTime since,
+                                      @Param("limit") int limit);
+
+    // --- full-text search over content_tsv, scoped to :userId's conversations ---
+    // Each of the caller's conversations probes GIN idx_chat_message_conv_search (conversation_id, content_tsv),
+    // so matches in other users' conversations are never read.
+    // Ranked by (rank DESC, id DESC); the headline is only computed for the rows of the page.
+
+    String SEARCH_PAGE_SELECT = """
+            SELECT h.id AS "id", h.conversation_id AS "conversationId", h.sender_id AS "senderId",
+                   h.sent_at AS "sentAt", h.rank AS "rank",
+                   ts_headline('simple', h.content, websearch_to_tsquery('simple', :q), :headlineOptions) AS "highlight"
+              FROM (
+            """;
+
+    String SEARCH_MATCHES = """
+                    SELECT m.id AS id, m.conversation_id, m.sender_id, m.sent_at, m.content,
+                           ts_rank_cd(m.content_tsv, q.query) AS rank
+                      FROM (SELECT id FROM conversation WHERE user_a_id = :userId
+                            UNION ALL
+                            SELECT id FROM conversation WHERE user_b_id = :userId) c
+                      JOIN chat_message m ON m.conversation_id = c.id
+                     CROSS JOIN websearch_to_tsquery('simple', :q) AS q(query)
+                     WHERE m.content_tsv @@ q.query
+            """;
+
+    String SEARCH_PAGE_ORDER = """
+                     ORDER BY rank DESC, id DESC
+                     LIMIT :limit
+                   ) h
+             ORDER BY h.rank DESC, h.id DESC
+            """;
+
+    @Query(value = SEARCH_PAGE_SELECT + SEARCH_MATCHES + SEARCH_PAGE_ORDER, nativeQuery = true)
+    List<ChatSearchRow> searchHead(@Param("userId") UUID userId,
+                                   @Param("q") String q,
+                                   @Param("headlineOptions") String headlineOptions,
+                                   @Param("limit") int limit);
+
+    @Query(value = SEARCH_PAGE_SELECT + SEARCH_MATCHES
+            + " AND (ts_rank_cd(m.content_tsv, q.query), m.id) < (CAST(:rank AS real), :id)"
+            + SEARCH_PAGE_ORDER, nativeQuery = true)
+    List<ChatSearchRow> searchAfter(@Param("userId") UUID userId,
+                                    @Param("q") String q,
+                                    @Param("headlineOptions") String headlineOptions,
+                                    @Param("rank") float rank,
+                                    @Param("id") UUID id,
+                                    @Param("limit") int limit);
 }
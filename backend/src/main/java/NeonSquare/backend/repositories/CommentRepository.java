@@ -2,7 +2,11 @@ package NeonSquare.backend.repositories;
 
 import NeonSquare.backend.models.Comment;
 import NeonSquare.backend.models.Post;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +19,34 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
     List<Comment> findByComment_Id(UUID commentId);
 
     List<Comment> findByPost_IdAndCommentIsNull(UUID postId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE comment SET reply_count = GREATEST(reply_count + :delta, 0) WHERE id = :commentId",
+           nativeQuery = true)
+    int adjustReplyCount(@Param("commentId") UUID commentId, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE comment SET reaction_count = GREATEST(reaction_count + :delta, 0) WHERE id = :commentId",
+           nativeQuery = true)
+    int adjustReactionCount(@Param("commentId") UUID commentId, @Param("delta") int delta);
+
+    @Query(value = "SELECT c.id FROM comment c WHERE c.id > :after ORDER BY c.id LIMIT :limit", nativeQuery = true)
+    List<UUID> findIdBatch(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE comment c
+               SET reply_count = x.replies, reaction_count = x.reactions
+              FROM (SELECT q.id,
+                           (SELECT count(*) FROM comment r WHERE r.comment_id = q.id)          AS replies,
+                           (SELECT count(*) FROM reaction_comment rc WHERE rc.comment_id = q.id) AS reactions
+                      FROM comment q
+                     WHERE q.id IN (:ids)) x
+             WHERE c.id = x.id
+               AND (c.reply_count <> x.replies OR c.reaction_count <> x.reactions)
+            """, nativeQuery = true)
+    int recomputeCounters(@Param("ids") List<UUID> ids);
 }
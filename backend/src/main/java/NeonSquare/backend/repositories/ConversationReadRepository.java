@@ -0,0 +1,110 @@
+// backend/src/main/java/NeonSquare/backend/repositories/ConversationReadRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.ConversationRead;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ConversationReadRepository extends JpaRepository<ConversationRead, ConversationRead.Key> {
+
+    List<ConversationRead> findById_ConversationId(UUID conversationId);
+
+    // Moves the watermark to the conversation's newest message; never moves it backwards
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = """
+            INSERT INTO conversation_read (conversation_id, user_id, last_read_at, last_read_message_id, updated_at)
+            SELECT m.conversation_id, :userId, m.sent_at, m.id, LOCALTIMESTAMP
+            FROM chat_message m
+            WHERE m.conversation_id = :conversationId
+            ORDER BY m.sent_at DESC, m.id DESC
+            LIMIT 1
+            ON CONFLICT (conversation_id, user_id) DO UPDATE
+            SET last_read_at = EXCLUDED.last_read_at,
+                last_read_message_id = EXCLUDED.last_read_message_id,
+                updated_at = EXCLUDED.updated_at
+            WHERE (conversation_read.last_read_at, conversation_read.last_read_message_id)
+                  < (EXCLUDED.last_read_at, EXCLUDED.last_read_message_id)
+            """, nativeQuery = true)
+    int advanceToLatest(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+
+    // Same, up to a specific message of the conversation
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = """
+            INSERT INTO conversation_read (conversation_id, user_id, last_read_at, last_read_message_id, updated_at)
+            SELECT m.conversation_id, :userId, m.sent_at, m.id, LOCALTIMESTAMP
+            FROM chat_message m
+            WHERE m.conversation_id = :conversationId AND m.id = :messageId
+            ON CONFLICT (conversation_id, user_id) DO UPDATE
+            SET last_read_at = EXCLUDED.last_read_at,
+                last_read_message_id = EXCLUDED.last_read_message_id,
+                updated_at = EXCLUDED.updated_at
+            WHERE (conversation_read.last_read_at, conversation_read.last_read_message_id)
+                  < (EXCLUDED.last_read_at, EXCLUDED.last_read_message_id)
+            """, nativeQuery = true)
+    int advanceTo(@Param("conversationId") UUID conversationId,
+                  @Param("userId") UUID userId,
+                  @Param("messageId") UUID messageId);
+
+    // Messages from others after the watermark; index-only on idx_chat_message_unread
+    @Query(value = """
+            SELECT count(*) FROM chat_message m
+            LEFT JOIN conversation_read r ON r.conversation_id = m.conversation_id AND r.user_id = :userId
+            WHERE m.conversation_id = :conversationId
+              AND m.sender_id <> :userId
+              AND (r.user_id IS NULL OR (m.sent_at, m.id) > (r.last_read_at, r.last_read_message_id))
+            """, nativeQuery = true)
+    long countUnread(@Param("conversationId") UUID conversationId, @Param("userId") UUID userId);
+
+    // Messages from others a first watermark at (toAt, toId) marks as read
+    @Query(value = """
+            SELECT count(*) FROM chat_message m
+            WHERE m.conversation_id = :conversationId
+              AND m.sender_id <> :userId
+              AND (m.sent_at, m.id) <= (:toAt, :toId)
+            """, nativeQuery = true)
+    long countFromOthersUpTo(@Param("conversationId") UUID conversationId,
+                             @Param("userId") UUID userId,
+                             @Param("toAt") LocalDateTime toAt,
+                             @Param("toId") UUID toId);
+
+    // Messages from others a watermark moving from (fromAt, fromId) to (toAt, toId) marks as read
+    @Query(value = """
+            SELECT count(*) FROM chat_message m
+            WHERE m.conversation_id = :conversationId
+              AND m.sender_id <> :userId
+              AND (m.sent_at, m.id) > (:fromAt, :fromId)
+              AND (m.sent_at, m.id) <= (:toAt, :toId)
+            """, nativeQuery = true)
+    long countFromOthersBetween(@Param("conversationId") UUID conversationId,
+                                @Param("userId") UUID userId,
+                                @Param("fromAt") LocalDateTime fromAt,
+                                @Param("fromId") UUID fromId,
+                                @Param("toAt") LocalDateTime toAt,
+                                @Param("toId") UUID toId);
+
+    // One-time seed from the legacy per-message is_read flags: newest flagged message per reader
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO conversation_read (conversation_id, user_id, last_read_at, last_read_message_id, updated_at)
+            SELECT DISTINCT ON (f.conversation_id, f.reader) f.conversation_id, f.reader, f.sent_at, f.id, LOCALTIMESTAMP
+            FROM (SELECT m.conversation_id, m.sent_at, m.id,
+                         CASE WHEN m.sender_id = c.user_a_id THEN c.user_b_id ELSE c.user_a_id END AS reader
+                  FROM chat_message m JOIN conversation c ON c.id = m.conversation_id
+                  WHERE m.is_read) f
+            ORDER BY f.conversation_id, f.reader, f.sent_at DESC, f.id DESC
+            ON CONFLICT (conversation_id, user_id) DO NOTHING
+            """, nativeQuery = true)
+    int seedFromLegacyFlags();
+}
@@ -1,10 +1,17 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/repositories/ConversationRepository.java
 package NeonSquare.backend.repositories;
 
+import NeonSquare.backend.dto.ConversationParticipants;
+import NeonSquare.backend.dto.InboxRow;
 import NeonSquare.backend.models.Conversation;
 import NeonSquare.backend.models.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,5 +20,106 @@ public interface ConversationRepository extends JpaRepository<Conversation, UUID
     // stored with sorted pairs (minId, maxId), see service for normalization
     Optional<Conversation> findByUserA_IdAndUserB_Id(UUID userAId, UUID userBId);
 
+    // Race-free create: a concurrent first message for the same pair is a no-op here, not a constraint error
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO conversation (id, user_a_id, user_b_id, created_at, last_message_at)
+            VALUES (:id, :userAId, :userBId, LOCALTIMESTAMP, LOCALTIMESTAMP)
+            ON CONFLICT ON CONSTRAINT uk_conversation_pair DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id, @Param("userAId") UUID userAId, @Param("userBId") UUID userBId);
+
+    @Query("SELECT c.userA.id AS userAId, c.userB.id AS userBId FROM Conversation c WHERE c.id = :id")
+    Optional<ConversationParticipants> findParticipants(@Param("id") UUID id);
+
     List<Conversation> findByUserA_IdOrUserB_IdOrderByCreatedAtDesc(UUID userIdA, UUID userIdB);
+
+    // Newest conversations of :userId on either side. Each side is its own ordered index scan
+    // (idx_conversation_user_a_activity / _user_b_activity) cut at :limit; the union is cut again.
+    String INBOX_SIDE_A = """
+            (SELECT c.id, c.last_message_at, c.last_message_id, c.user_b_id AS peer_id
+               FROM conversation c WHERE c.user_a_id = :userId
+            """;
+    String INBOX_SIDE_B = """
+            (SELECT c.id, c.last_message_at, c.last_message_id, c.user_a_id AS peer_id
+               FROM conversation c WHERE c.user_b_id = :userId
+            """;
+    String INBOX_AFTER = " AND (c.last_message_at, c.id) < (:activityAt, :id)";
+    String INBOX_SIDE_END = " ORDER BY c.last_message_at DESC, c.id DESC LIMIT :limit)";
+
+    // One row per page entry: peer summary, last message and unread count. The count stops at 100
+    // (shown as "99+"), so a huge backlog costs no more than that per row.
+    // Activity is last_message_at, which starts at the creation time and follows the newest message.
+    // The page of conversations goes between INBOX_ROWS_FROM and INBOX_ROWS_JOIN.
+    String INBOX_ROWS_FROM = """
+            SELECT c.id                       AS "conversationId",
+                   c.last_message_at          AS "activityAt",
+                   pu.id                      AS "peerId",
+                   pu.first_name              AS "peerFirstName",
+                   pu.last_name               AS "peerLastName",
+                   pu.email                   AS "peerEmail",
+                   CAST(pu.status AS integer) AS "peerStatus",
+                   pu.profile_pic_id          AS "peerProfilePicId",
+                   m.id                       AS "lastMessageId",
+                   m.sender_id                AS "lastMessageSenderId",
+                   LEFT(m.content, 140)       AS "lastMessagePreview",
+                   m.sent_at                  AS "lastMessageAt",
+                   un.n                       AS "unreadCount"
+              FROM (SELECT u.* FROM (
+            """;
+    String INBOX_ROWS_JOIN = """
+                    ) u ORDER BY u.last_message_at DESC, u.id DESC LIMIT :limit) c
+              JOIN user_account pu ON pu.id = c.peer_id
+              LEFT JOIN chat_message m ON m.id = c.last_message_id
+              LEFT JOIN conversation_read r ON r.conversation_id = c.id AND r.user_id = :userId
+              LEFT JOIN LATERAL (
+                    SELECT count(*) AS n FROM (
+                        SELECT 1
+                          FROM chat_message x
+                         WHERE x.conversation_id = c.id
+                           AND x.sender_id <> :userId
+                           AND (r.user_id IS NULL OR (x.sent_at, x.id) > (r.last_read_at, r.last_read_message_id))
+                         LIMIT 100) capped
+              ) un ON TRUE
+             ORDER BY c.last_message_at DESC, c.id DESC
+            """;
+
+    @Query(value = INBOX_ROWS_FROM
+            + INBOX_SIDE_A + INBOX_SIDE_END + " UNION ALL " + INBOX_SIDE_B + INBOX_SIDE_END
+            + INBOX_ROWS_JOIN, nativeQuery = true)
+    List<InboxRow> findInboxHead(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = INBOX_ROWS_FROM
+            + INBOX_SIDE_A + INBOX_AFTER + INBOX_SIDE_END + " UNION ALL " + INBOX_SIDE_B + INBOX_AFTER + INBOX_SIDE_END
+            + INBOX_ROWS_JOIN, nativeQuery = true)
+    List<InboxRow> findInboxAfter(@Param("userId") UUID userId,
+                                  @Param("activityAt") LocalDateTime activityAt,
+                                  @Param("id") UUID id,
+                                  @Param("limit") int limit);
+
+    // Conversations whose messages predate last_message_* get them filled in (DataMigrations, once)
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE conversation c
+               SET last_message_at = m.sent_at, last_message_id = m.id
+              FROM (SELECT DISTINCT ON (conversation_id) conversation_id, sent_at, id
+                      FROM chat_message
+                     ORDER BY conversation_id, sent_at DESC, id DESC) m
+             WHERE c.id = m.conversation_id AND c.last_message_id IS NULL
+            """, nativeQuery = true)
+    int backfillLastMessage();
+
+    // ...then the rest start at their creation time, and the column becomes NOT NULL
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE conversation SET last_message_at = created_at WHERE last_message_at IS NULL",
+           nativeQuery = true)
+    int seedActivityFromCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query(value = "ALTER TABLE conversation ALTER COLUMN last_message_at SET NOT NULL", nativeQuery = true)
+    void requireActivity();
 }
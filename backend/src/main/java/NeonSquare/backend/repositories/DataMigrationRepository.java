@@ -0,0 +1,23 @@
+// backend/src/main/java/NeonSquare/backend/repositories/DataMigrationRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.DataMigration;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    // Another node may have finished the same backfill first
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO data_migration (name, completed_at) VALUES (:name, LOCALTIMESTAMP)
+            ON CONFLICT (name) DO NOTHING
+            """, nativeQuery = true)
+    int markDone(@Param("name") String name);
+}
@@ -1,6 +1,7 @@
 // backend/src/main/java/NeonSquare/backend/repositories/FriendshipRepository.java
 package NeonSquare.backend.repositories;
 
+import NeonSquare.backend.dto.FriendEdge;
 import NeonSquare.backend.models.Friendship;
 import NeonSquare.backend.models.enums.FriendshipStatus;
 import jakarta.transaction.Transactional;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +25,26 @@ public interface FriendshipRepository extends JpaRepository<Friendship, UUID> {
             @Param("userId") UUID userId
     );
 
+    // Accepted friends of each given user, in both directions, in one round trip
+    @Query(value = """
+           SELECT f.sender_id AS "userId", f.receiver_id AS "friendId"
+           FROM friendship f
+           WHERE f.status = 'ACCEPTED' AND f.sender_id IN (:userIds)
+           UNION ALL
+           SELECT f.receiver_id AS "userId", f.sender_id AS "friendId"
+           FROM friendship f
+           WHERE f.status = 'ACCEPTED' AND f.receiver_id IN (:userIds)
+           """, nativeQuery = true)
+    List<FriendEdge> findAcceptedFriendEdges(@Param("userIds") Collection<UUID> userIds);
+
+    // Ids only, for fan-out: no Friendship/User entities to load
+    @Query(value = """
+           SELECT f.receiver_id FROM friendship f WHERE f.status = 'ACCEPTED' AND f.sender_id = :userId
+           UNION
+           SELECT f.sender_id FROM friendship f WHERE f.status = 'ACCEPTED' AND f.receiver_id = :userId
+           """, nativeQuery = true)
+    List<UUID> findAcceptedFriendIds(@Param("userId") UUID userId);
+
     @Modifying
     @Transactional
     @Query("UPDATE Friendship f SET f.status = :status " +
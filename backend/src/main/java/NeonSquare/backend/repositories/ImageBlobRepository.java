@@ -0,0 +1,77 @@
+// backend/src/main/java/NeonSquare/backend/repositories/ImageBlobRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.ImageBlob;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // Serializes writers and deleters of one key until the surrounding transaction ends
+    @Query(value = "SELECT true FROM (SELECT pg_advisory_xact_lock(hashtext(:key))) l", nativeQuery = true)
+    Boolean lockKey(@Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO image_blob (storage_key, byte_size, ref_count, acquired_at)
+            VALUES (:key, :size, 1, LOCALTIMESTAMP)
+            ON CONFLICT (storage_key)
+            DO UPDATE SET ref_count = image_blob.ref_count + 1, acquired_at = LOCALTIMESTAMP
+            """, nativeQuery = true)
+    int acquire(@Param("key") String key, @Param("size") long size);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE image_blob SET ref_count = GREATEST(ref_count - 1, 0) WHERE storage_key = :key",
+            nativeQuery = true)
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM image_blob WHERE storage_key = :key AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("key") String key);
+
+    // Recount references from image/image_variant; also registers blobs stored before this table existed.
+    // Blobs acquired after the cutoff may belong to uploads whose row is not committed yet, so they are skipped.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO image_blob (storage_key, byte_size, ref_count, acquired_at)
+            SELECT r.storage_key, MAX(r.byte_size), COUNT(*), LOCALTIMESTAMP
+            FROM (SELECT storage_key, byte_size FROM image WHERE storage_key IS NOT NULL
+                  UNION ALL
+                  SELECT storage_key, byte_size FROM image_variant) r
+            GROUP BY r.storage_key
+            ON CONFLICT (storage_key)
+            DO UPDATE SET ref_count = EXCLUDED.ref_count
+            WHERE image_blob.ref_count <> EXCLUDED.ref_count AND image_blob.acquired_at < :cutoff
+            """, nativeQuery = true)
+    int recountReferenced(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE image_blob b SET ref_count = 0
+            WHERE b.ref_count > 0 AND b.acquired_at < :cutoff
+              AND NOT EXISTS (SELECT 1 FROM image i WHERE i.storage_key = b.storage_key)
+              AND NOT EXISTS (SELECT 1 FROM image_variant v WHERE v.storage_key = b.storage_key)
+            """, nativeQuery = true)
+    int zeroUnreferenced(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query(value = """
+            SELECT storage_key FROM image_blob
+            WHERE ref_count = 0 AND acquired_at < :cutoff
+            ORDER BY storage_key
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findUnreferenced(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
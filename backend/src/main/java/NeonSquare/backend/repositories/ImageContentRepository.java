@@ -0,0 +1,12 @@
+// backend/src/main/java/NeonSquare/backend/repositories/ImageContentRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.ImageContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ImageContentRepository extends JpaRepository<ImageContent, UUID> {
+}
@@ -2,11 +2,39 @@
 package NeonSquare.backend.repositories;
 
 import NeonSquare.backend.models.Image;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, UUID> {
+
+    // Rows still carrying their bytes inline, for ImageStorageMigration
+    @Query(value = "SELECT id FROM image WHERE storage_key IS NULL AND data IS NOT NULL ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findInlineBlobIds(@Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE image SET data = NULL WHERE id = :id", nativeQuery = true)
+    int clearInlineData(@Param("id") UUID id);
+
+    // Every blob reference held by a post's images and their variants
+    @Query(value = """
+            SELECT i.storage_key FROM image_post ip JOIN image i ON i.id = ip.image_id
+            WHERE ip.post_id = :postId AND i.storage_key IS NOT NULL
+            UNION ALL
+            SELECT v.storage_key FROM image_post ip JOIN image_variant v ON v.image_id = ip.image_id
+            WHERE ip.post_id = :postId
+            """, nativeQuery = true)
+    List<String> findStorageKeysByPostId(@Param("postId") UUID postId);
+
+    @Query(value = "SELECT ip.image_id FROM image_post ip WHERE ip.post_id = :postId", nativeQuery = true)
+    List<UUID> findIdsByPostId(@Param("postId") UUID postId);
 }
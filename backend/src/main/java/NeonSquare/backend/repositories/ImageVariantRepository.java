@@ -0,0 +1,19 @@
+// backend/src/main/java/NeonSquare/backend/repositories/ImageVariantRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.ImageVariant;
+import NeonSquare.backend.models.enums.ImageSize;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImageVariantRepository extends JpaRepository<ImageVariant, UUID> {
+
+    Optional<ImageVariant> findByImage_IdAndSize(UUID imageId, ImageSize size);
+
+    List<ImageVariant> findByImage_Id(UUID imageId);
+}
@@ -4,11 +4,13 @@ package NeonSquare.backend.repositories;
 import NeonSquare.backend.models.Notification;
 import NeonSquare.backend.models.enums.NotificationStatus;
 import NeonSquare.backend.models.enums.NotificationType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,6 +20,25 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createDate DESC")
     List<Notification> findByUserIdOrderByCreateDateDesc(@Param("userId") UUID userId);
     
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createDate DESC")
+    List<Notification> findNewestByUserId(@Param("userId") UUID userId, Pageable page);
+
+    // Keyset on (create_date, id), oldest first: a client pages forward from its last row,
+    // and rows sharing a timestamp across a page boundary are neither skipped nor repeated
+    @Query(value = """
+            SELECT n.* FROM notification n
+             WHERE n.user_id = :userId
+               AND (n.create_date, n.id) > (:since, :afterId)
+             ORDER BY n.create_date, n.id
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Notification> findByUserIdCreatedAfter(
+            @Param("userId") UUID userId,
+            @Param("since") LocalDateTime since,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.status = :status ORDER BY n.createDate DESC")
     List<Notification> findByUserIdAndStatusOrderByCreateDateDesc(
             @Param("userId") UUID userId, 
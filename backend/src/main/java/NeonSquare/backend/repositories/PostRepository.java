@@ -1,15 +1,150 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/repositories/PostRepository.java
 package NeonSquare.backend.repositories;
 
+import NeonSquare.backend.dto.PostFeedRow;
 import NeonSquare.backend.models.Post;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
-    List<Post> findAllByOrderByUpdatedAtDesc();
-}
 
+    // One row per post: author summary, counts, viewer's reaction and image ids in a single round trip.
+    // Aliases are quoted so Postgres keeps their case for the PostFeedRow projection.
+    String FEED_ROW_SELECT = """
+            SELECT p.id                          AS "id",
+                   p.content                     AS "content",
+                   CAST(p.visibility AS integer) AS "visibility",
+                   p.updated_at                  AS "updatedAt",
+                   u.id                          AS "authorId",
+                   u.first_name                  AS "authorFirstName",
+                   u.last_name                   AS "authorLastName",
+                   u.email                       AS "authorEmail",
+                   CAST(u.status AS integer)     AS "authorStatus",
+                   u.profile_pic_id              AS "authorProfilePicId",
+                   CAST(p.comment_count AS bigint)  AS "commentCount",
+                   CAST(p.reaction_count AS bigint) AS "reactionCount",
+                   vr.type                       AS "viewerReaction",
+                   vr.id                         AS "viewerReactionId",
+                   vr.created_at                 AS "viewerReactedAt",
+                   (SELECT string_agg(CAST(ip.image_id AS text), ',' ORDER BY ip.image_id)
+                      FROM image_post ip WHERE ip.post_id = p.id)                  AS "imageIds"
+              FROM post p
+              LEFT JOIN user_account u ON u.id = p.author_id
+              LEFT JOIN LATERAL (
+                    SELECT r.id, CAST(r.type AS integer) AS type, r.created_at
+                      FROM reaction_post rp
+                      JOIN reaction r ON r.id = rp.reaction_id
+                     WHERE rp.post_id = p.id AND r.user_id = :viewerId
+                     ORDER BY r.created_at DESC, r.id DESC
+                     LIMIT 1
+              ) vr ON TRUE
+            """;
+
+    // Global feed is public posts only, the same for every viewer so its pages can be shared;
+    // the viewer's own and friends' non-public posts go through timelines
+    String GLOBAL_FEED_VISIBLE = "(p.visibility IS NULL OR p.visibility = 0)";
+
+    // Lookups by id (timeline hydration, single post): FRIENDS posts also for accepted friends of the author
+    String VISIBLE_TO_VIEWER = """
+            (p.visibility IS NULL OR p.visibility = 0 OR p.author_id = :viewerId
+              OR (p.visibility = 1 AND EXISTS (
+                    SELECT 1 FROM friendship f
+                     WHERE f.status = 'ACCEPTED'
+                       AND ((f.sender_id = p.author_id AND f.receiver_id = :viewerId)
+                         OR (f.receiver_id = p.author_id AND f.sender_id = :viewerId)))))
+            """;
+
+    // Keyset feed: both queries walk idx_post_updated_at_id, so page N costs the same as page 1
+    @Query(value = FEED_ROW_SELECT
+            + " WHERE " + GLOBAL_FEED_VISIBLE
+            + " ORDER BY p.updated_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<PostFeedRow> findFeedHead(@Param("viewerId") UUID viewerId,
+                                   @Param("limit") int limit);
+
+    @Query(value = FEED_ROW_SELECT
+            + " WHERE (p.updated_at, p.id) < (:updatedAt, :id) AND " + GLOBAL_FEED_VISIBLE
+            + " ORDER BY p.updated_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<PostFeedRow> findFeedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                    @Param("id") UUID id,
+                                    @Param("viewerId") UUID viewerId,
+                                    @Param("limit") int limit);
+
+    @Query(value = FEED_ROW_SELECT + " WHERE p.id IN (:ids) AND " + VISIBLE_TO_VIEWER, nativeQuery = true)
+    List<PostFeedRow> findFeedRows(@Param("ids") List<UUID> ids,
+                                   @Param("viewerId") UUID viewerId);
+
+    @Query(value = FEED_ROW_SELECT + " WHERE p.id = :id AND " + VISIBLE_TO_VIEWER, nativeQuery = true)
+    Optional<PostFeedRow> findFeedRow(@Param("id") UUID id,
+                                      @Param("viewerId") UUID viewerId);
+
+    interface ViewerReactionRow {
+        UUID getPostId();
+        Integer getType();
+        UUID getReactionId();
+        LocalDateTime getReactedAt();
+    }
+
+    // The viewer's newest reaction per post, laid over viewer-independent cached rows
+    @Query(value = """
+            SELECT DISTINCT ON (rp.post_id)
+                   rp.post_id                    AS "postId",
+                   CAST(r.type AS integer)       AS "type",
+                   r.id                          AS "reactionId",
+                   r.created_at                  AS "reactedAt"
+              FROM reaction_post rp
+              JOIN reaction r ON r.id = rp.reaction_id
+             WHERE rp.post_id IN (:ids) AND r.user_id = :viewerId
+             ORDER BY rp.post_id, r.created_at DESC, r.id DESC
+            """, nativeQuery = true)
+    List<ViewerReactionRow> findViewerReactions(@Param("ids") Collection<UUID> ids,
+                                                @Param("viewerId") UUID viewerId);
+
+    // --- Counters: single-statement increments, safe under concurrent writers ---
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE post SET comment_count = GREATEST(comment_count + :delta, 0) WHERE id = :postId",
+           nativeQuery = true)
+    int adjustCommentCount(@Param("postId") UUID postId, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE post SET reaction_count = GREATEST(reaction_count + :delta, 0) WHERE id = :postId",
+           nativeQuery = true)
+    int adjustReactionCount(@Param("postId") UUID postId, @Param("delta") int delta);
+
+    // Reconciliation walks posts by id in batches; see CounterReconciliationService
+    @Query(value = "SELECT p.id FROM post p WHERE p.id > :after ORDER BY p.id LIMIT :limit", nativeQuery = true)
+    List<UUID> findIdBatch(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE post p
+               SET comment_count = x.comments, reaction_count = x.reactions
+              FROM (SELECT q.id,
+                           (SELECT count(*) FROM comment c WHERE c.post_id = q.id)         AS comments,
+                           (SELECT count(*) FROM reaction_post rp WHERE rp.post_id = q.id) AS reactions
+                      FROM post q
+                     WHERE q.id IN (:ids)) x
+             WHERE p.id = x.id
+               AND (p.comment_count <> x.comments OR p.reaction_count <> x.reactions)
+            """, nativeQuery = true)
+    int recomputeCounters(@Param("ids") List<UUID> ids);
+
+    // Rows written before updated_at was populated would sort outside the keyset order
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.updatedAt = COALESCE(p.createdAt, LOCAL DATETIME) WHERE p.updatedAt IS NULL")
+    int backfillMissingUpdatedAt();
+}
@@ -0,0 +1,96 @@
+// backend/src/main/java/NeonSquare/backend/repositories/TimelineEntryRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.TimelineEntry;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.Key> {
+
+    interface TimelineKey {
+        UUID getPostId();
+        LocalDateTime getPostedAt();
+    }
+
+    // One statement per chunk of owners; re-running a fan-out is a no-op
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline_entry (owner_id, post_id, author_id, posted_at)
+            SELECT t.owner_id, :postId, :authorId, :postedAt
+              FROM unnest(CAST(ARRAY[:ownerIds] AS uuid[])) AS t(owner_id)
+            ON CONFLICT (owner_id, post_id) DO NOTHING
+            """, nativeQuery = true)
+    int fanOut(@Param("ownerIds") List<UUID> ownerIds,
+               @Param("postId") UUID postId,
+               @Param("authorId") UUID authorId,
+               @Param("postedAt") LocalDateTime postedAt);
+
+    // Posts from before timelines existed: the author's own, plus friends' for non-private posts
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline_entry (owner_id, post_id, author_id, posted_at)
+            SELECT p.author_id, p.id, p.author_id, p.created_at
+              FROM post p
+             WHERE p.author_id IS NOT NULL AND p.created_at IS NOT NULL
+            UNION ALL
+            SELECT CASE WHEN f.sender_id = p.author_id THEN f.receiver_id ELSE f.sender_id END,
+                   p.id, p.author_id, p.created_at
+              FROM post p
+              JOIN friendship f ON f.status = 'ACCEPTED'
+                   AND (f.sender_id = p.author_id OR f.receiver_id = p.author_id)
+             WHERE p.created_at IS NOT NULL
+               AND (p.visibility IS NULL OR p.visibility IN (0, 1))
+               AND NOT EXISTS (SELECT 1 FROM timeline_pull_author pa WHERE pa.author_id = p.author_id)
+            ON CONFLICT (owner_id, post_id) DO NOTHING
+            """, nativeQuery = true)
+    int backfillFromPosts();
+
+    /**
+     * Next timeline keys for a viewer, newest first:
+     * pushed rows (range scan on idx_timeline_owner_posted) merged with posts of
+     * fan-out-on-read friends (range scan on idx_post_author_created).
+     */
+    @Query(value = """
+            (SELECT te.post_id AS "postId", te.posted_at AS "postedAt"
+               FROM timeline_entry te
+              WHERE te.owner_id = :viewerId
+                AND (te.posted_at, te.post_id) < (:at, :id)
+              ORDER BY te.posted_at DESC, te.post_id DESC
+              LIMIT :limit)
+            UNION
+            (SELECT p.id, p.created_at
+               FROM post p
+              WHERE p.author_id IN (
+                        SELECT pa.author_id
+                          FROM timeline_pull_author pa
+                          JOIN friendship f ON f.status = 'ACCEPTED'
+                               AND ((f.sender_id = pa.author_id AND f.receiver_id = :viewerId)
+                                 OR (f.receiver_id = pa.author_id AND f.sender_id = :viewerId)))
+                AND (p.visibility IS NULL OR p.visibility IN (0, 1))
+                AND (p.created_at, p.id) < (:at, :id)
+              ORDER BY p.created_at DESC, p.id DESC
+              LIMIT :limit)
+            ORDER BY "postedAt" DESC, "postId" DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TimelineKey> findPage(@Param("viewerId") UUID viewerId,
+                               @Param("at") LocalDateTime at,
+                               @Param("id") UUID id,
+                               @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.postId = :postId")
+    int deleteByPostId(@Param("postId") UUID postId);
+}
@@ -0,0 +1,25 @@
+// backend/src/main/java/NeonSquare/backend/repositories/TimelinePullAuthorRepository.java
+package NeonSquare.backend.repositories;
+
+import NeonSquare.backend.models.TimelinePullAuthor;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface TimelinePullAuthorRepository extends JpaRepository<TimelinePullAuthor, UUID> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline_pull_author (author_id, since)
+            VALUES (:authorId, LOCALTIMESTAMP)
+            ON CONFLICT (author_id) DO NOTHING
+            """, nativeQuery = true)
+    int markPullAuthor(@Param("authorId") UUID authorId);
+}
@@ -0,0 +1,54 @@
+// backend/src/main/java/NeonSquare/backend/services/AdvisoryLocks.java
+package NeonSquare.backend.services;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster-wide mutual exclusion for maintenance jobs that every node schedules (partition DDL,
+ * archiving, index builds). Each lock is a Postgres session advisory lock held on a connection
+ * of its own, outside the pool, for as long as the work runs; the work itself uses pooled
+ * connections as usual. Closing the connection releases the lock, also when a node dies.
+ */
+@Component
+public class AdvisoryLocks {
+
+    private final DataSourceProperties dataSource;
+
+    public AdvisoryLocks(DataSourceProperties dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Runs work holding the named lock, waiting while another node holds it. */
+    public void runExclusive(String name, Runnable work) {
+        run(name, work, "SELECT pg_advisory_lock(hashtext(?)), true");
+    }
+
+    /** Runs work only if no other node holds the named lock; returns whether it ran. */
+    public boolean tryRunExclusive(String name, Runnable work) {
+        return run(name, work, "SELECT null, pg_try_advisory_lock(hashtext(?))");
+    }
+
+    private boolean run(String name, Runnable work, String lockSql) {
+        try (Connection connection = DriverManager.getConnection(dataSource.determineUrl(),
+                dataSource.determineUsername(), dataSource.determinePassword())) {
+            try (PreparedStatement ps = connection.prepareStatement(lockSql)) {
+                ps.setString(1, name);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(2)) return false;
+                }
+            }
+            work.run();
+            return true;
+        } catch (SQLException e) {
+            throw new CannotAcquireLockException("Advisory lock " + name + " unavailable", e);
+        }
+    }
+}
@@ -15,6 +15,9 @@ import java.util.UUID;
 @Service
 public class AuthService {
 
+    // Tokens are simplified to this prefix + the user id for now
+    public static final String TOKEN_PREFIX = "jwt_token_";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -37,7 +40,7 @@ public class AuthService {
         User savedUser = userRepository.save(user);
 
         // Generate JWT token (simplified for now)
-        String token = "jwt_token_" + savedUser.getId().toString();
+        String token = TOKEN_PREFIX + savedUser.getId().toString();
 
         return new AuthResponse(
             token,
@@ -64,7 +67,7 @@ public class AuthService {
         }
 
         // Generate JWT token (simplified for now)
-        String token = "jwt_token_" + user.getId().toString();
+        String token = TOKEN_PREFIX + user.getId().toString();
 
         return new AuthResponse(
             token,
@@ -76,5 +79,20 @@ public class AuthService {
             true
         );
     }
-}
 
+    /**
+     * User id carried by a token issued above, or null when the token is missing or malformed.
+     * Accepts the raw token or an "Authorization: Bearer ..." value.
+     */
+    public UUID resolveUserId(String token) {
+        if (token == null) return null;
+        String t = token.trim();
+        if (t.regionMatches(true, 0, "Bearer ", 0, 7)) t = t.substring(7).trim();
+        if (!t.startsWith(TOKEN_PREFIX)) return null;
+        try {
+            return UUID.fromString(t.substring(TOKEN_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// backend/src/main/java/NeonSquare/backend/services/ChatArchiveCodec.java
+package NeonSquare.backend.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding of one conversation's messages from one archived partition (a chat_archive_block row).
+ * Written once, never modified, so the layout is versioned by its magic.
+ *
+ * <pre>
+ * gzip(MAGIC, then per message in (sent_at, id) order:
+ *      id (2 longs), sender id (2 longs), sent_at (epoch second long, nano int),
+ *      content length (int), content (UTF-8))
+ * </pre>
+ */
+final class ChatArchiveCodec {
+    private static final byte[] MAGIC = "NSCHBLK1".getBytes(StandardCharsets.US_ASCII);
+
+    record Record(UUID id, UUID senderId, LocalDateTime sentAt, String content) {}
+
+    private ChatArchiveCodec() {}
+
+    static Encoder encoder() {
+        return new Encoder();
+    }
+
+    /** Streams a block's records in (sent_at, id) order until the visitor returns false. */
+    static void decode(byte[] block, int messages, Predicate<Record> visitor) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(block)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not a chat archive block");
+            for (int i = 0; i < messages; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                UUID sender = new UUID(in.readLong(), in.readLong());
+                LocalDateTime sentAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                if (!visitor.test(new Record(id, sender, sentAt, new String(content, StandardCharsets.UTF_8)))) return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt chat archive block", e);
+        }
+    }
+
+    /** Collects one block; append records in (sent_at, id) order, then take finish(). */
+    static final class Encoder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out;
+        private int messages;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        private Encoder() {
+            try {
+                out = new DataOutputStream(new GZIPOutputStream(bytes, 1 << 13));
+                out.write(MAGIC);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void append(Record r) {
+            try {
+                out.writeLong(r.id().getMostSignificantBits());
+                out.writeLong(r.id().getLeastSignificantBits());
+                out.writeLong(r.senderId().getMostSignificantBits());
+                out.writeLong(r.senderId().getLeastSignificantBits());
+                out.writeLong(r.sentAt().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(r.sentAt().getNano());
+                byte[] content = r.content().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(content.length);
+                out.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (first == null) first = r.sentAt();
+            last = r.sentAt();
+            messages++;
+        }
+
+        int messages() {
+            return messages;
+        }
+
+        LocalDateTime firstSentAt() {
+            return first;
+        }
+
+        LocalDateTime lastSentAt() {
+            return last;
+        }
+
+        byte[] finish() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
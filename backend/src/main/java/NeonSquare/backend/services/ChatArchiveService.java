@@ -0,0 +1,231 @@
+// backend/src/main/java/NeonSquare/backend/services/ChatArchiveService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.models.ChatArchiveSegment;
+import NeonSquare.backend.repositories.ChatArchiveSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Cold storage for chat history. Partitions older than chat.archive.after-months are streamed
+ * into compressed per-conversation blocks (chat_archive_block, see ChatArchiveCodec) and
+ * recorded in chat_archive_segment; the partition is detached and dropped in the same
+ * transaction, so the archive is shared by every node and a message is always in exactly one
+ * of the two places. History paging continues into the blocks where the live partitions end;
+ * archived messages are no longer searchable or counted as unread.
+ */
+@Slf4j
+@Service
+public class ChatArchiveService {
+
+    /** A message read back from the archive. */
+    public record ArchivedMessage(UUID id, UUID conversationId, UUID senderId, LocalDateTime sentAt, String content) {}
+
+    private record BlockHead(String partitionName, LocalDateTime firstSentAt, LocalDateTime lastSentAt, int messages) {}
+
+    private static final String INSERT_BLOCK = """
+            INSERT INTO chat_archive_block
+                (conversation_id, partition_name, first_sent_at, last_sent_at, message_count, data)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final int INSERT_BATCH = 100;
+
+    private final ChatPartitionService partitions;
+    private final ChatArchiveSegmentRepository segmentRepo;
+    private final AdvisoryLocks locks;
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streaming;
+    private final TransactionTemplate tx;
+    private final int afterMonths;
+
+    public ChatArchiveService(ChatPartitionService partitions,
+                              ChatArchiveSegmentRepository segmentRepo,
+                              AdvisoryLocks locks,
+                              JdbcTemplate jdbc,
+                              DataSource dataSource,
+                              PlatformTransactionManager txManager,
+                              @Value("${chat.archive.after-months:12}") int afterMonths) {
+        this.partitions = partitions;
+        this.segmentRepo = segmentRepo;
+        this.locks = locks;
+        this.jdbc = jdbc;
+        // a cursor over the partition instead of materializing it (needs a transaction on Postgres)
+        this.streaming = new JdbcTemplate(dataSource);
+        this.streaming.setFetchSize(1000);
+        this.tx = new TransactionTemplate(txManager);
+        this.afterMonths = afterMonths;
+    }
+
+    /** Everything before this instant is archived; null when nothing is. One row per archived month. */
+    public LocalDateTime archivedBefore() {
+        return segmentRepo.findArchivedBefore();
+    }
+
+    // ---- archiving
+
+    // Every node schedules this; the lock makes the others wait and then find nothing left to do
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void archiveOldPartitions() {
+        if (afterMonths <= 0 || !partitions.isPartitioned()) return;
+        locks.runExclusive(ChatPartitionService.DDL_LOCK, () -> {
+            LocalDateTime cutoff = YearMonth.now().minusMonths(afterMonths).atDay(1).atStartOfDay();
+            for (ChatPartitionService.Partition p : partitions.listPartitions()) {
+                if (p.to().isAfter(cutoff)) break; // oldest first
+                try {
+                    archive(p);
+                } catch (DataAccessException e) {
+                    // the transaction rolled back and the partition stays live; the next run retries it
+                    log.warn("Archiving chat partition {} failed: {}", p.name(), e.getMessage());
+                    break;
+                }
+            }
+        });
+    }
+
+    private void archive(ChatPartitionService.Partition p) {
+        long[] totals = new long[2]; // messages, bytes
+        LocalDateTime[] first = {null};
+        tx.executeWithoutResult(status -> {
+            List<Object[]> pending = new ArrayList<>(INSERT_BATCH);
+            UUID[] conversation = {null};
+            ChatArchiveCodec.Encoder[] block = {null};
+            Runnable endBlock = () -> {
+                if (block[0] == null) return;
+                byte[] data = block[0].finish();
+                pending.add(new Object[]{conversation[0], p.name(), Timestamp.valueOf(block[0].firstSentAt()),
+                        Timestamp.valueOf(block[0].lastSentAt()), block[0].messages(), data});
+                totals[0] += block[0].messages();
+                totals[1] += data.length;
+                if (first[0] == null || block[0].firstSentAt().isBefore(first[0])) first[0] = block[0].firstSentAt();
+                if (pending.size() >= INSERT_BATCH) {
+                    jdbc.batchUpdate(INSERT_BLOCK, pending);
+                    pending.clear();
+                }
+                block[0] = null;
+            };
+
+            streaming.query("SELECT conversation_id, id, sender_id, sent_at, content FROM " + p.name()
+                            + " ORDER BY conversation_id, sent_at, id",
+                    (RowCallbackHandler) rs -> {
+                        UUID conversationId = rs.getObject(1, UUID.class);
+                        if (!conversationId.equals(conversation[0])) {
+                            endBlock.run();
+                            conversation[0] = conversationId;
+                            block[0] = ChatArchiveCodec.encoder();
+                        }
+                        block[0].append(new ChatArchiveCodec.Record(rs.getObject(2, UUID.class),
+                                rs.getObject(3, UUID.class), rs.getObject(4, LocalDateTime.class), rs.getString(5)));
+                    });
+            endBlock.run();
+            if (!pending.isEmpty()) jdbc.batchUpdate(INSERT_BLOCK, pending);
+
+            segmentRepo.save(ChatArchiveSegment.builder()
+                    .partitionName(p.name())
+                    .firstSentAt(first[0])
+                    .sentBefore(p.to())
+                    .messageCount(totals[0])
+                    .byteSize(totals[1])
+                    .archivedAt(LocalDateTime.now())
+                    .build());
+            partitions.dropPartition(p.name());
+        });
+        log.info("Archived chat partition {}: {} messages, {} bytes", p.name(), totals[0], totals[1]);
+    }
+
+    // ---- reads, same (sent_at, id) order as the live table
+
+    /** Up to limit messages older than (at, id), newest first; at null means from the newest archived. */
+    public List<ArchivedMessage> readBefore(UUID conversationId, LocalDateTime at, UUID id, int limit) {
+        List<ArchivedMessage> out = new ArrayList<>(limit);
+        for (BlockHead block : blocks(conversationId, false)) {
+            if (out.size() >= limit) break;
+            if (at != null && block.firstSentAt().isAfter(at)) continue;
+            int remaining = limit - out.size();
+            // keep only the newest `remaining` records below the position
+            Deque<ArchivedMessage> window = new ArrayDeque<>(remaining + 1);
+            scan(conversationId, block, m -> {
+                if (at != null && comparePosition(m.sentAt(), m.id(), at, id) >= 0) return false;
+                window.addLast(m);
+                if (window.size() > remaining) window.pollFirst();
+                return true;
+            });
+            for (Iterator<ArchivedMessage> it = window.descendingIterator(); it.hasNext(); ) out.add(it.next());
+        }
+        return out;
+    }
+
+    /** Up to limit messages newer than (at, id), oldest first. */
+    public List<ArchivedMessage> readAfter(UUID conversationId, LocalDateTime at, UUID id, int limit) {
+        List<ArchivedMessage> out = new ArrayList<>(limit);
+        for (BlockHead block : blocks(conversationId, true)) {
+            if (out.size() >= limit) break;
+            if (block.lastSentAt().isBefore(at)) continue;
+            scan(conversationId, block, m -> {
+                if (comparePosition(m.sentAt(), m.id(), at, id) <= 0) return true;
+                out.add(m);
+                return out.size() < limit;
+            });
+        }
+        return out;
+    }
+
+    public Optional<LocalDateTime> findSentAt(UUID conversationId, UUID messageId) {
+        LocalDateTime[] found = {null};
+        for (BlockHead block : blocks(conversationId, false)) {
+            scan(conversationId, block, m -> {
+                if (!m.id().equals(messageId)) return true;
+                found[0] = m.sentAt();
+                return false;
+            });
+            if (found[0] != null) break;
+        }
+        return Optional.ofNullable(found[0]);
+    }
+
+    private List<BlockHead> blocks(UUID conversationId, boolean oldestFirst) {
+        return jdbc.query("""
+                SELECT partition_name, first_sent_at, last_sent_at, message_count
+                FROM chat_archive_block WHERE conversation_id = ?
+                ORDER BY first_sent_at""" + (oldestFirst ? "" : " DESC"),
+                (rs, n) -> new BlockHead(rs.getString(1), rs.getObject(2, LocalDateTime.class),
+                        rs.getObject(3, LocalDateTime.class), rs.getInt(4)),
+                conversationId);
+    }
+
+    private void scan(UUID conversationId, BlockHead block, Predicate<ArchivedMessage> visitor) {
+        byte[] data = jdbc.queryForObject(
+                "SELECT data FROM chat_archive_block WHERE conversation_id = ? AND partition_name = ?",
+                byte[].class, conversationId, block.partitionName());
+        ChatArchiveCodec.decode(data, block.messages(), r -> visitor.test(
+                new ArchivedMessage(r.id(), conversationId, r.senderId(), r.sentAt(), r.content())));
+    }
+
+    // (sent_at, id) as Postgres orders it: uuid compares bytewise, i.e. as unsigned halves
+    static int comparePosition(LocalDateTime atA, UUID idA, LocalDateTime atB, UUID idB) {
+        int cmp = atA.compareTo(atB);
+        if (cmp != 0) return cmp;
+        int hi = Long.compareUnsigned(idA.getMostSignificantBits(), idB.getMostSignificantBits());
+        if (hi != 0) return hi;
+        return Long.compareUnsigned(idA.getLeastSignificantBits(), idB.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,319 @@
+// backend/src/main/java/NeonSquare/backend/services/ChatMessageWriter.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.dto.MessageDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Group-commit writer for chat messages.
+ * <p>
+ * Senders append to a bounded queue and get a future; a single writer thread drains the queue and
+ * inserts everything that arrived within chat.writer.linger (at most chat.writer.batch-size rows)
+ * as one JDBC batch in one transaction. Futures complete only after that transaction commits, so
+ * an acknowledged message is durable. A burst therefore costs one connection and one commit per
+ * batch instead of one of each per message. When the queue is full, submit fails fast.
+ * <p>
+ * Ordering: there is one writer and the queue is FIFO, so messages are committed and acknowledged
+ * in the order they were submitted. sent_at is stamped at submit time, which makes the history
+ * order (sent_at) equal to submit order within a conversation. Frames from one STOMP session are
+ * submitted in receive order (see WebSocketConfig), so a sender's own messages never reorder.
+ * If a batch fails, its rows are retried one by one in the same order and only the bad rows fail.
+ * <p>
+ * Idempotency: a send may carry the client's tempId. Within chat.dedup.window a resend with the
+ * same (sender, tempId) gets the first send's future without queueing anything; after that, the
+ * key stored in chat_message_key (same transaction as the row) is looked up before each batch
+ * insert. Either way the caller gets the original message with replay set and nothing is written.
+ */
+@Slf4j
+@Service
+public class ChatMessageWriter {
+
+    private static final String INSERT = """
+            INSERT INTO chat_message (id, conversation_id, sender_id, content, sent_at, is_read, content_tsv)
+            VALUES (?, ?, ?, ?, ?, false, to_tsvector('simple', ?))
+            """;
+
+    // Keeps conversation.last_message_* on the newest message; never moves it backwards.
+    // Until the first message last_message_at holds created_at (DB clock), which always gives way.
+    private static final String TOUCH_CONVERSATION = """
+            UPDATE conversation SET last_message_at = ?, last_message_id = ?
+            WHERE id = ? AND (last_message_id IS NULL OR (last_message_at, last_message_id) < (?, ?))
+            """;
+
+    private static final String INSERT_KEY = """
+            INSERT INTO chat_message_key (sender_id, client_key, message_id, conversation_id, sent_at, created_at)
+            VALUES (?, ?, ?, ?, ?, LOCALTIMESTAMP)
+            """;
+
+    // sent_at lets the join prune to one partition; an archived original falls back to the resent content
+    private static final String FIND_KEYS = """
+            SELECT k.sender_id, k.client_key, k.message_id, k.conversation_id, k.sent_at, m.content
+            FROM chat_message_key k
+            LEFT JOIN chat_message m ON m.id = k.message_id AND m.sent_at = k.sent_at
+            WHERE (k.sender_id, k.client_key) IN (%s)
+            """;
+
+    public static final int MAX_CLIENT_KEY_LENGTH = 64;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Thread writer;
+    private final Cache<ClientKey, CompletableFuture<MessageDTO>> recentSends;
+    private final Duration keyRetention;
+    private volatile boolean running = true;
+
+    private record ClientKey(UUID senderId, String key) {}
+
+    private record Pending(UUID id, UUID conversationId, UUID senderId, String content, LocalDateTime sentAt,
+                           String clientKey, CompletableFuture<MessageDTO> result) {
+
+        MessageDTO toDTO() {
+            return MessageDTO.builder()
+                    .id(id)
+                    .conversationId(conversationId)
+                    .senderId(senderId)
+                    .content(content)
+                    .sentAt(sentAt)
+                    .read(false)
+                    .build();
+        }
+    }
+
+    public ChatMessageWriter(JdbcTemplate jdbc,
+                             TransactionTemplate tx,
+                             MeterRegistry meterRegistry,
+                             @Value("${chat.writer.queue-capacity:10000}") int queueCapacity,
+                             @Value("${chat.writer.batch-size:200}") int batchSize,
+                             @Value("${chat.writer.linger:2ms}") Duration linger,
+                             @Value("${chat.dedup.window:2m}") Duration dedupWindow,
+                             @Value("${chat.dedup.retention:2d}") Duration keyRetention) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = linger.toNanos();
+        Gauge.builder("chat.writer.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.recentSends = Caffeine.newBuilder().expireAfterWrite(dedupWindow).build();
+        this.keyRetention = keyRetention;
+
+        this.writer = new Thread(this::run, "chat-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a message; the future completes with the stored message once its batch has committed.
+     * clientKey (may be null) makes the send idempotent per sender, see the class comment.
+     */
+    public CompletableFuture<MessageDTO> submit(UUID conversationId, UUID senderId, String content, String clientKey) {
+        CompletableFuture<MessageDTO> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Chat writer is shutting down"));
+            return result;
+        }
+        if (clientKey != null && clientKey.length() > MAX_CLIENT_KEY_LENGTH) {
+            result.completeExceptionally(new IllegalArgumentException("tempId is too long"));
+            return result;
+        }
+        if (clientKey != null) {
+            ClientKey key = new ClientKey(senderId, clientKey);
+            // a failed first send does not count; the resend gets another attempt
+            CompletableFuture<MessageDTO> first = recentSends.asMap().compute(key, (k, prev) ->
+                    prev == null || prev.isCompletedExceptionally() ? result : prev);
+            if (first != result) return first.thenApply(ChatMessageWriter::asReplay);
+            result.whenComplete((saved, error) -> {
+                if (error != null) recentSends.asMap().remove(key, result);
+            });
+        }
+        Pending pending = new Pending(UUID.randomUUID(), conversationId, senderId,
+                content == null ? "" : content, LocalDateTime.now(), clientKey, result);
+        if (!queue.offer(pending)) {
+            result.completeExceptionally(new IllegalStateException("Chat is busy, try again"));
+        }
+        return result;
+    }
+
+    // a copy: the first caller may still be filling in its own DTO (tempId echo)
+    private static MessageDTO asReplay(MessageDTO original) {
+        return MessageDTO.builder()
+                .id(original.getId())
+                .conversationId(original.getConversationId())
+                .senderId(original.getSenderId())
+                .content(original.getContent())
+                .sentAt(original.getSentAt())
+                .read(original.isRead())
+                .replay(true)
+                .build();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long wait = deadline - System.nanoTime();
+                    Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                flush(batch); // the loop then drains whatever is still queued
+            } catch (RuntimeException e) {
+                log.error("Chat writer failed on a batch of {}", batch.size(), e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> input) {
+        if (input.isEmpty()) return;
+        List<Pending> batch;
+        try {
+            batch = withoutReplays(input);
+        } catch (DataAccessException e) {
+            input.forEach(p -> p.result().completeExceptionally(e));
+            return;
+        }
+        if (batch.isEmpty()) return;
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.batchUpdate(INSERT, batch, batch.size(), (ps, p) -> {
+                    ps.setObject(1, p.id());
+                    ps.setObject(2, p.conversationId());
+                    ps.setObject(3, p.senderId());
+                    ps.setString(4, p.content());
+                    ps.setTimestamp(5, Timestamp.valueOf(p.sentAt()));
+                    ps.setString(6, p.content());
+                });
+                // the batch is in submit order, so the last message per conversation is its newest
+                Map<UUID, Pending> newest = new LinkedHashMap<>();
+                batch.forEach(p -> newest.put(p.conversationId(), p));
+                jdbc.batchUpdate(TOUCH_CONVERSATION, newest.values(), newest.size(), (ps, p) -> {
+                    Timestamp at = Timestamp.valueOf(p.sentAt());
+                    ps.setTimestamp(1, at);
+                    ps.setObject(2, p.id());
+                    ps.setObject(3, p.conversationId());
+                    ps.setTimestamp(4, at);
+                    ps.setObject(5, p.id());
+                });
+                // a concurrent send with the same key (another node) fails here; the row-by-row retry finds it
+                List<Pending> keyed = batch.stream().filter(p -> p.clientKey() != null).collect(Collectors.toList());
+                if (!keyed.isEmpty()) {
+                    jdbc.batchUpdate(INSERT_KEY, keyed, keyed.size(), (ps, p) -> {
+                        ps.setObject(1, p.senderId());
+                        ps.setString(2, p.clientKey());
+                        ps.setObject(3, p.id());
+                        ps.setObject(4, p.conversationId());
+                        ps.setTimestamp(5, Timestamp.valueOf(p.sentAt()));
+                    });
+                }
+            });
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(translate(e));
+                return;
+            }
+            log.debug("Chat batch of {} failed ({}), retrying row by row", batch.size(), e.getMessage());
+            batch.forEach(p -> flush(List.of(p)));
+            return;
+        }
+        batch.forEach(p -> p.result().complete(p.toDTO()));
+    }
+
+    // Completes resends of keys that are already stored and returns the rest, in order
+    private List<Pending> withoutReplays(List<Pending> batch) {
+        List<Pending> keyed = batch.stream().filter(p -> p.clientKey() != null).collect(Collectors.toList());
+        if (keyed.isEmpty()) return batch;
+
+        Object[] args = new Object[keyed.size() * 2];
+        for (int i = 0; i < keyed.size(); i++) {
+            args[2 * i] = keyed.get(i).senderId();
+            args[2 * i + 1] = keyed.get(i).clientKey();
+        }
+        String pairs = String.join(", ", Collections.nCopies(keyed.size(), "(?, ?)"));
+        Map<ClientKey, MessageDTO> stored = new HashMap<>();
+        jdbc.query(FIND_KEYS.formatted(pairs), rs -> {
+            UUID senderId = rs.getObject(1, UUID.class);
+            stored.put(new ClientKey(senderId, rs.getString(2)), MessageDTO.builder()
+                    .id(rs.getObject(3, UUID.class))
+                    .conversationId(rs.getObject(4, UUID.class))
+                    .senderId(senderId)
+                    .sentAt(rs.getTimestamp(5).toLocalDateTime())
+                    .content(rs.getString(6))
+                    .replay(true)
+                    .build());
+        }, args);
+        if (stored.isEmpty()) return batch;
+
+        List<Pending> fresh = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            MessageDTO original = p.clientKey() == null ? null : stored.get(new ClientKey(p.senderId(), p.clientKey()));
+            if (original == null) {
+                fresh.add(p);
+                continue;
+            }
+            if (original.getContent() == null) original.setContent(p.content());
+            p.result().complete(original);
+        }
+        return fresh;
+    }
+
+    @Scheduled(cron = "${chat.dedup.prune-cron:0 45 3 * * *}")
+    public void pruneClientKeys() {
+        int pruned = jdbc.update("DELETE FROM chat_message_key WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(keyRetention)));
+        if (pruned > 0) log.info("Pruned {} chat idempotency keys", pruned);
+    }
+
+    private static RuntimeException translate(DataAccessException e) {
+        return e instanceof DataIntegrityViolationException
+                ? new IllegalArgumentException("Unknown conversation or sender")
+                : e;
+    }
+
+    // Stop accepting and let the writer drain the queue before the DataSource goes away
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,269 @@
+// backend/src/main/java/NeonSquare/backend/services/ChatPartitionService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.repositories.ChatMessageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps chat_message range-partitioned by sent_at month, so indexes and vacuum work scale with
+ * the months that are still live rather than with all history.
+ *
+ * An unpartitioned table (fresh schema from Hibernate, or an existing install) is converted once,
+ * in the background after startup: the old table becomes the partition chat_message_legacy for
+ * everything before the month after next, reusing its indexes, and monthly partitions follow.
+ * Until then the chat keeps writing to the plain table. Partitions are created
+ * chat.partitions.months-ahead in advance; old ones are handed to ChatArchiveService.
+ *
+ * All DDL on chat_message (here, the search index, archiving) runs under the advisory lock
+ * DDL_LOCK, so nodes of a cluster take turns instead of racing each other's RENAMEs.
+ */
+@Slf4j
+@Service
+public class ChatPartitionService {
+    public static final String TABLE = "chat_message";
+    public static final String LEGACY_PARTITION = "chat_message_legacy";
+    public static final String DDL_LOCK = "chat_message_ddl";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+    private static final DateTimeFormatter SQL_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern BOUNDS = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final AdvisoryLocks locks;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    /** One partition; from is null for the legacy partition (MINVALUE). */
+    public record Partition(String name, LocalDateTime from, LocalDateTime to) {}
+
+    // the repository dependency makes sure Hibernate has created chat_message by now
+    public ChatPartitionService(ChatMessageRepository messageRepo,
+                                JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                AdvisoryLocks locks,
+                                @Value("${chat.partitions.enabled:true}") boolean enabled,
+                                @Value("${chat.partitions.months-ahead:2}") int monthsAhead) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.locks = locks;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    // Before ChatMessageWriter's first insert: a missing partition for "now" would reject it.
+    // Cheap; skipped when another node holds the lock, since that node is doing the same.
+    @PostConstruct
+    void init() {
+        if (!enabled || !isPartitioned()) return;
+        locks.tryRunExclusive(DDL_LOCK, this::createFuturePartitions);
+    }
+
+    // The conversion builds an index and validates a constraint over the whole table, which can
+    // take long on a large install; it must not hold up startup
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void convertInBackground() {
+        if (!enabled || isPartitioned()) return;
+        locks.runExclusive(DDL_LOCK, () -> {
+            // another node may have converted while we waited
+            if (!isPartitioned()) convert();
+            createFuturePartitions();
+        });
+    }
+
+    public boolean isPartitioned() {
+        String kind = jdbc.queryForObject(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    @Scheduled(cron = "${chat.partitions.cron:0 15 0 * * *}")
+    public void ensureFuturePartitions() {
+        if (!enabled || !isPartitioned()) return;
+        locks.runExclusive(DDL_LOCK, this::createFuturePartitions);
+    }
+
+    private void createFuturePartitions() {
+        LocalDateTime coveredTo = listPartitions().stream()
+                .map(Partition::to).max(LocalDateTime::compareTo).orElse(LocalDateTime.MIN);
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            if (from.isBefore(coveredTo)) continue;
+            LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+            String name = TABLE + from.format(PARTITION_SUFFIX);
+            jdbc.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + sql(from) + "') TO ('" + sql(to) + "')");
+        }
+    }
+
+    /** Attached partitions, oldest first. */
+    public List<Partition> listPartitions() {
+        return jdbc.query("""
+                SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """, (rs, n) -> parse(rs.getString("name"), rs.getString("bound")), TABLE)
+                .stream()
+                .sorted((a, b) -> a.to().compareTo(b.to()))
+                .toList();
+    }
+
+    /**
+     * CREATE INDEX CONCURRENTLY for chat_message. Postgres has no CONCURRENTLY on a partitioned
+     * table, so each partition is built concurrently and attached to an index on the parent only;
+     * the parent index turns valid once every partition has one. An invalid leftover of an interrupted
+     * build would satisfy IF NOT EXISTS forever, so it is dropped and built again. Call under DDL_LOCK.
+     */
+    public void createIndexConcurrently(String name, String using) {
+        if (!isPartitioned()) {
+            dropIfInvalid(name);
+            jdbc.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + TABLE + " " + using);
+            return;
+        }
+        jdbc.execute("CREATE INDEX IF NOT EXISTS " + name + " ON ONLY " + TABLE + " " + using);
+        for (Partition p : listPartitions()) {
+            // partitions created after the parent index already got one from CREATE TABLE ... PARTITION OF
+            Boolean attached = jdbc.queryForObject("""
+                    SELECT EXISTS (SELECT 1 FROM pg_inherits i JOIN pg_index x ON x.indexrelid = i.inhrelid
+                                   WHERE i.inhparent = to_regclass(?) AND x.indrelid = to_regclass(?))
+                    """, Boolean.class, name, p.name());
+            if (Boolean.TRUE.equals(attached)) continue;
+            String child = name + "_" + p.name();
+            dropIfInvalid(child);
+            jdbc.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + child + " ON " + p.name() + " " + using);
+            jdbc.execute("ALTER INDEX " + name + " ATTACH PARTITION " + child);
+        }
+    }
+
+    public boolean isIndexValid(String name) {
+        List<Boolean> valid = jdbc.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, name);
+        return !valid.isEmpty() && Boolean.TRUE.equals(valid.get(0));
+    }
+
+    /** Drops an index on chat_message if it exists; concurrently unless it is a partitioned index. Call under DDL_LOCK. */
+    public void dropIndex(String name) {
+        String kind = jdbc.query("SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)",
+                rs -> rs.next() ? rs.getString(1) : null, name);
+        if (kind == null) return;
+        jdbc.execute(("I".equals(kind) ? "DROP INDEX IF EXISTS " : "DROP INDEX CONCURRENTLY IF EXISTS ") + name);
+    }
+
+    private void dropIfInvalid(String name) {
+        List<Boolean> valid = jdbc.queryForList(
+                "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, name);
+        if (!valid.isEmpty() && !Boolean.TRUE.equals(valid.get(0))) {
+            log.warn("Dropping invalid index {} left by an interrupted build", name);
+            jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+    }
+
+    /** Removes an archived partition from the table; runs inside the caller's transaction, under DDL_LOCK. */
+    public void dropPartition(String name) {
+        jdbc.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+        jdbc.execute("DROP TABLE " + name);
+    }
+
+    private void convert() {
+        // the bound is validated long before the swap; two months ahead keeps a conversion that
+        // spans a month boundary from rejecting new messages
+        LocalDateTime legacyTo = YearMonth.now().plusMonths(2).atDay(1).atStartOfDay();
+        log.info("Converting {} to monthly partitions; existing rows become {} (sent_at < {})",
+                TABLE, LEGACY_PARTITION, legacyTo);
+
+        // Outside the transaction and without long locks: the unique index the new primary key needs,
+        // and a validated bound so ATTACH PARTITION can skip its full-table check
+        jdbc.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS chat_message_id_sent_at ON "
+                + TABLE + " (id, sent_at)");
+        jdbc.execute("ALTER TABLE " + TABLE + " DROP CONSTRAINT IF EXISTS chat_message_legacy_bound");
+        jdbc.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT chat_message_legacy_bound CHECK (sent_at < '"
+                + sql(legacyTo) + "') NOT VALID");
+        jdbc.execute("ALTER TABLE " + TABLE + " VALIDATE CONSTRAINT chat_message_legacy_bound");
+
+        tx.executeWithoutResult(status -> {
+            List<Map<String, Object>> indexes = jdbc.queryForList("""
+                    SELECT i.relname AS name, pg_get_indexdef(i.oid) AS def,
+                           x.indisprimary AS "primary", x.indisunique AS "unique"
+                    FROM pg_index x JOIN pg_class i ON i.oid = x.indexrelid
+                    WHERE x.indrelid = to_regclass(?)
+                    """, TABLE);
+            List<Map<String, Object>> foreignKeys = jdbc.queryForList("""
+                    SELECT conname AS name, pg_get_constraintdef(oid) AS def
+                    FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'
+                    """, TABLE);
+
+            jdbc.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+            for (Map<String, Object> index : indexes) {
+                String name = (String) index.get("name");
+                if (Boolean.TRUE.equals(index.get("primary"))) {
+                    jdbc.execute("ALTER TABLE " + LEGACY_PARTITION + " RENAME CONSTRAINT " + name
+                            + " TO " + legacyName(name));
+                } else {
+                    jdbc.execute("ALTER INDEX " + name + " RENAME TO " + legacyName(name));
+                }
+            }
+
+            jdbc.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION + " INCLUDING DEFAULTS)"
+                    + " PARTITION BY RANGE (sent_at)");
+            jdbc.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT chat_message_pkey PRIMARY KEY (id, sent_at)");
+            jdbc.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+                    + " FOR VALUES FROM (MINVALUE) TO ('" + sql(legacyTo) + "')");
+            jdbc.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT chat_message_legacy_bound");
+
+            // Same definitions on the parent; Postgres attaches the matching legacy index instead of building
+            for (Map<String, Object> index : indexes) {
+                String name = (String) index.get("name");
+                if (Boolean.TRUE.equals(index.get("primary")) || "chat_message_id_sent_at".equals(name)) continue;
+                if (Boolean.TRUE.equals(index.get("unique"))) {
+                    log.warn("Unique index {} cannot exist on the partitioned table; kept on {} only",
+                            name, LEGACY_PARTITION);
+                    continue;
+                }
+                jdbc.execute((String) index.get("def"));
+            }
+            for (Map<String, Object> fk : foreignKeys) {
+                jdbc.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + fk.get("name") + " " + fk.get("def"));
+            }
+        });
+        log.info("{} is now partitioned by month", TABLE);
+    }
+
+    private static String legacyName(String name) {
+        return name.contains(TABLE) ? name.replace(TABLE, LEGACY_PARTITION) : name + "_legacy";
+    }
+
+    private static Partition parse(String name, String bound) {
+        Matcher m = BOUNDS.matcher(bound);
+        if (!m.find()) throw new IllegalStateException("Unexpected bound on " + name + ": " + bound);
+        return new Partition(name, timestamp(m.group(1)), timestamp(m.group(2)));
+    }
+
+    private static LocalDateTime timestamp(String literal) {
+        if ("MINVALUE".equals(literal) || "MAXVALUE".equals(literal)) return null;
+        return LocalDateTime.parse(literal.replace("'", "").trim().replace(' ', 'T'));
+    }
+
+    private static String sql(LocalDateTime at) {
+        return at.format(SQL_TIMESTAMP);
+    }
+}
@@ -0,0 +1,157 @@
+// backend/src/main/java/NeonSquare/backend/services/ChatSearchService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.dto.ChatSearchHitDTO;
+import NeonSquare.backend.dto.ChatSearchRow;
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.SearchCursor;
+import NeonSquare.backend.repositories.ChatMessageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Message search over chat_message.content_tsv, limited to the caller's conversations.
+ *
+ * The column is a plain nullable tsvector (adding it never rewrites the table) that
+ * ChatMessageWriter fills on insert. Rows older than the column are backfilled in the
+ * background by primary-key ranges, and the GIN index is built CONCURRENTLY afterwards;
+ * a valid index therefore means the backfill has finished.
+ *
+ * The index leads with conversation_id (btree_gin), so a search only reads the posting lists of
+ * the caller's conversations instead of every user's matches for the query terms.
+ */
+@Slf4j
+@Service
+public class ChatSearchService {
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 50;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private static final String SEARCH_INDEX = "idx_chat_message_conv_search";
+    // content_tsv only, from before searches were scoped by the index; dropped once SEARCH_INDEX is built
+    private static final String UNSCOPED_SEARCH_INDEX = "idx_chat_message_search";
+
+    // ts_headline marks matches with control characters so the excerpt can be HTML-escaped
+    // before they become <mark> tags
+    private static final char MARK_START = '\u0002';
+    private static final char MARK_END = '\u0003';
+    private static final String HEADLINE_OPTIONS = "StartSel=" + MARK_START + ", StopSel=" + MARK_END
+            + ", MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private final ChatMessageRepository messageRepo;
+    private final ChatPartitionService partitions;
+    private final AdvisoryLocks locks;
+    private final JdbcTemplate jdbc;
+    private final int backfillBatchSize;
+
+    // the partition service dependency also makes sure chat_message is in its final shape by now
+    public ChatSearchService(ChatMessageRepository messageRepo,
+                             ChatPartitionService partitions,
+                             AdvisoryLocks locks,
+                             JdbcTemplate jdbc,
+                             @Value("${chat.search.backfill-batch-size:5000}") int backfillBatchSize) {
+        this.messageRepo = messageRepo;
+        this.partitions = partitions;
+        this.locks = locks;
+        this.jdbc = jdbc;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    // Must exist before ChatMessageWriter's first insert; cheap (catalog-only) when it is new
+    @PostConstruct
+    void ensureColumn() {
+        jdbc.execute("ALTER TABLE chat_message ADD COLUMN IF NOT EXISTS content_tsv tsvector");
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillAndIndex() {
+        if (partitions.isIndexValid(SEARCH_INDEX)) return;
+
+        long filled = 0;
+        UUID from = null;
+        while (true) {
+            List<UUID> ids = from == null
+                    ? jdbc.queryForList("SELECT id FROM chat_message ORDER BY id LIMIT ?",
+                            UUID.class, backfillBatchSize)
+                    : jdbc.queryForList("SELECT id FROM chat_message WHERE id > ? ORDER BY id LIMIT ?",
+                            UUID.class, from, backfillBatchSize);
+            if (ids.isEmpty()) break;
+            UUID to = ids.get(ids.size() - 1);
+            filled += jdbc.update("""
+                    UPDATE chat_message SET content_tsv = to_tsvector('simple', content)
+                    WHERE id BETWEEN ? AND ? AND content_tsv IS NULL
+                    """, ids.get(0), to);
+            from = to;
+        }
+        if (filled > 0) log.info("Backfilled search vectors on {} chat messages", filled);
+
+        // outside a transaction on purpose: CONCURRENTLY does not block the chat writer.
+        // Under the DDL lock so it never runs into a partition conversion on another node.
+        locks.runExclusive(ChatPartitionService.DDL_LOCK, () -> {
+            jdbc.execute("CREATE EXTENSION IF NOT EXISTS btree_gin");
+            partitions.createIndexConcurrently(SEARCH_INDEX, "USING gin (conversation_id, content_tsv)");
+            partitions.dropIndex(UNSCOPED_SEARCH_INDEX);
+        });
+        log.info("Chat search index {} is ready", SEARCH_INDEX);
+    }
+
+    /**
+     * Best matches first, one query per page. The query uses web search syntax
+     * ("quoted phrase", -exclude, or); the page size is clamped to [1, MAX_SEARCH_PAGE_SIZE].
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ChatSearchHitDTO> search(UUID userId, String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q");
+        }
+        String q = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        int size = clampSearchPage(limit);
+        SearchCursor after = SearchCursor.decode(cursor);
+        // one extra row tells whether another page exists
+        List<ChatSearchRow> rows = after == null
+                ? messageRepo.searchHead(userId, q, HEADLINE_OPTIONS, size + 1)
+                : messageRepo.searchAfter(userId, q, HEADLINE_OPTIONS, after.rank(), after.id(), size + 1);
+
+        List<ChatSearchHitDTO> items = rows.stream().limit(size).map(this::toDTO).collect(Collectors.toList());
+        if (rows.size() <= size) return new CursorPage<>(items, null);
+        ChatSearchRow last = rows.get(size - 1);
+        return new CursorPage<>(items, new SearchCursor(last.getRank(), last.getId()).encode());
+    }
+
+    public static int clampSearchPage(Integer limit) {
+        if (limit == null) return DEFAULT_SEARCH_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+    }
+
+    private ChatSearchHitDTO toDTO(ChatSearchRow row) {
+        return ChatSearchHitDTO.builder()
+                .messageId(row.getId())
+                .conversationId(row.getConversationId())
+                .senderId(row.getSenderId())
+                .sentAt(row.getSentAt())
+                .highlight(highlight(row.getHighlight()))
+                .build();
+    }
+
+    private static String highlight(String headline) {
+        if (headline == null) return null;
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(MARK_START), "<mark>")
+                .replace(String.valueOf(MARK_END), "</mark>");
+    }
+}
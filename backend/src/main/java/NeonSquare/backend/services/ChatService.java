@@ -2,29 +2,54 @@
 package NeonSquare.backend.services;
 
 import NeonSquare.backend.dto.ConversationDTO;
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.FeedCursor;
+import NeonSquare.backend.dto.InboxEntryDTO;
+import NeonSquare.backend.dto.InboxRow;
 import NeonSquare.backend.dto.MessageDTO;
+import NeonSquare.backend.dto.UserDTO;
+import NeonSquare.backend.events.ConversationReadEvent;
 import NeonSquare.backend.models.ChatMessageEntity;
 import NeonSquare.backend.models.Conversation;
-import NeonSquare.backend.models.User;
+import NeonSquare.backend.models.ConversationRead;
+import NeonSquare.backend.models.enums.UserStatus;
 import NeonSquare.backend.repositories.ChatMessageRepository;
+import NeonSquare.backend.repositories.ConversationReadRepository;
 import NeonSquare.backend.repositories.ConversationRepository;
-import NeonSquare.backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatService {
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 30;
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     private final ConversationRepository conversationRepo;
     private final ChatMessageRepository messageRepo;
-    private final UserRepository userRepo;
+    private final ChatMessageWriter writer;
+    private final ConversationReadRepository readRepo;
+    private final ChatArchiveService archive;
+    private final ConversationParticipantCache participants;
+    private final DataMigrations migrations;
+    private final ApplicationEventPublisher events;
+    private final SimpMessagingTemplate ws;
 
     private ConversationDTO toDTO(Conversation c) {
         return ConversationDTO.builder()
@@ -34,14 +59,31 @@ public class ChatService {
                 .build();
     }
 
-    private MessageDTO toDTO(ChatMessageEntity m) {
+    // read = some other participant's watermark has reached the message
+    private MessageDTO toDTO(ChatMessageEntity m, List<ConversationRead> watermarks) {
+        UUID senderId = m.getSender().getId();
+        boolean read = watermarks.stream().anyMatch(w ->
+                !w.getId().getUserId().equals(senderId) && w.covers(m.getSentAt(), m.getId()));
         return MessageDTO.builder()
                 .id(m.getId())
                 .conversationId(m.getConversation().getId())
-                .senderId(m.getSender().getId())
+                .senderId(senderId)
                 .content(m.getContent())
                 .sentAt(m.getSentAt())
-                .read(m.isRead())
+                .read(read)
+                .build();
+    }
+
+    private MessageDTO toDTO(ChatArchiveService.ArchivedMessage m, List<ConversationRead> watermarks) {
+        boolean read = watermarks.stream().anyMatch(w ->
+                !w.getId().getUserId().equals(m.senderId()) && w.covers(m.sentAt(), m.id()));
+        return MessageDTO.builder()
+                .id(m.id())
+                .conversationId(m.conversationId())
+                .senderId(m.senderId())
+                .content(m.content())
+                .sentAt(m.sentAt())
+                .read(read)
                 .build();
     }
 
@@ -52,14 +94,53 @@ public class ChatService {
         UUID a = user1.compareTo(user2) < 0 ? user1 : user2;
         UUID b = user1.compareTo(user2) < 0 ? user2 : user1;
 
-        return conversationRepo.findByUserA_IdAndUserB_Id(a, b)
-                .map(this::toDTO)
-                .orElseGet(() -> {
-                    User A = userRepo.findById(a).orElseThrow();
-                    User B = userRepo.findById(b).orElseThrow();
-                    Conversation c = Conversation.builder().userA(A).userB(B).createdAt(LocalDateTime.now()).build();
-                    return toDTO(conversationRepo.save(c));
-                });
+        Optional<Conversation> existing = conversationRepo.findByUserA_IdAndUserB_Id(a, b);
+        if (existing.isEmpty()) {
+            try {
+                conversationRepo.insertIfAbsent(UUID.randomUUID(), a, b);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalArgumentException("Unknown user");
+            }
+            // ours, or the one a concurrent request inserted first
+            existing = conversationRepo.findByUserA_IdAndUserB_Id(a, b);
+        }
+        ConversationDTO dto = toDTO(existing.orElseThrow());
+        participants.put(dto.getId(), a, b);
+        return dto;
+    }
+
+    /**
+     * Inbox page for userId, most recently active first: peer summary, last message preview and
+     * unread count per conversation, all from one query on the denormalized conversation.last_message_*.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InboxEntryDTO> listInbox(UUID userId, String cursor, Integer limit) {
+        int size = clampHistoryPage(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+        List<InboxRow> rows = after == null
+                ? conversationRepo.findInboxHead(userId, size + 1)
+                : conversationRepo.findInboxAfter(userId, after.at(), after.id(), size + 1);
+
+        List<InboxEntryDTO> items = rows.stream().limit(size).map(this::toDTO).collect(Collectors.toList());
+        if (rows.size() <= size) return new CursorPage<>(items, null);
+        InboxRow last = rows.get(size - 1);
+        return new CursorPage<>(items, new FeedCursor(last.getActivityAt(), last.getConversationId()).encode());
+    }
+
+    private InboxEntryDTO toDTO(InboxRow row) {
+        UserStatus[] statuses = UserStatus.values();
+        Integer status = row.getPeerStatus();
+        return InboxEntryDTO.builder()
+                .conversationId(row.getConversationId())
+                .peer(new UserDTO(row.getPeerId(), row.getPeerFirstName(), row.getPeerLastName(), row.getPeerEmail(),
+                        status != null && status >= 0 && status < statuses.length ? statuses[status] : null,
+                        row.getPeerProfilePicId()))
+                .lastMessageId(row.getLastMessageId())
+                .lastMessageSenderId(row.getLastMessageSenderId())
+                .lastMessagePreview(row.getLastMessagePreview())
+                .lastMessageAt(row.getLastMessageAt())
+                .unreadCount(row.getUnreadCount() != null ? row.getUnreadCount() : 0L)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -68,40 +149,159 @@ public class ChatService {
                 .stream().map(this::toDTO).collect(Collectors.toList());
     }
 
-    @Transactional
-    public MessageDTO saveMessage(UUID conversationId, UUID senderId, String content, LocalDateTime sentAt) {
-        Conversation c = conversationRepo.findById(conversationId).orElseThrow();
-        User sender = userRepo.findById(senderId).orElseThrow();
-
-        ChatMessageEntity m = ChatMessageEntity.builder()
-                .conversation(c)
-                .sender(sender)
-                .content(content == null ? "" : content)
-                .sentAt(sentAt == null ? LocalDateTime.now() : sentAt)
-                .read(false)
-                .build();
+    /**
+     * Persists through the group-commit writer; the future completes once the row is committed.
+     * A sender outside the conversation (or an unknown conversation) fails the future with
+     * IllegalArgumentException; the membership check is served from ConversationParticipantCache.
+     * With a tempId, a resend completes with the original message (replay set) and stores nothing.
+     */
+    public CompletableFuture<MessageDTO> sendMessage(UUID conversationId, UUID senderId, String content, String tempId) {
+        if (!participants.isParticipant(conversationId, senderId)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Not a participant of this conversation"));
+        }
+        return writer.submit(conversationId, senderId, content, tempId == null || tempId.isBlank() ? null : tempId);
+    }
+
+    /**
+     * Keyset history page. With no position it returns the latest messages; before (a message id)
+     * pages backwards, newest first; after (a message id) or since (a timestamp) page forwards,
+     * oldest first, for reconnect catch-up. Each page costs O(limit) regardless of history length
+     * and is not shifted by messages arriving in the meantime. nextCursor is the id to pass as
+     * before/after for the following page, null when there is none.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MessageDTO> listHistory(UUID conversationId, UUID before, UUID after,
+                                              LocalDateTime since, Integer limit) {
+        int size = clampHistoryPage(limit);
+        List<ConversationRead> watermarks = readRepo.findById_ConversationId(conversationId);
+        // one extra row tells whether another page exists
+        List<MessageDTO> rows;
+        if (before != null) {
+            rows = positionOf(conversationId, before)
+                    .map(at -> pageBackwards(conversationId, at, before, size + 1, watermarks))
+                    .orElse(List.of());
+        } else if (after != null) {
+            rows = positionOf(conversationId, after)
+                    .map(at -> pageForwards(conversationId, at, after, size + 1, watermarks))
+                    .orElse(List.of());
+        } else if (since != null) {
+            rows = messageRepo.findSince(conversationId, since, size + 1)
+                    .stream().map(m -> toDTO(m, watermarks)).collect(Collectors.toList());
+        } else {
+            rows = pageBackwards(conversationId, null, null, size + 1, watermarks);
+        }
+        List<MessageDTO> items = rows.size() > size ? rows.subList(0, size) : rows;
+        String next = rows.size() > size ? items.get(size - 1).getId().toString() : null;
+        return new CursorPage<>(items, next);
+    }
 
-        return toDTO(messageRepo.save(m));
+    // A cursor message may already be in the archive
+    private Optional<LocalDateTime> positionOf(UUID conversationId, UUID messageId) {
+        Optional<LocalDateTime> live = messageRepo.findSentAt(conversationId, messageId);
+        if (live.isPresent() || archive.archivedBefore() == null) return live;
+        return archive.findSentAt(conversationId, messageId);
+    }
+
+    // Newest first: live partitions, then the archive where they run out
+    private List<MessageDTO> pageBackwards(UUID conversationId, LocalDateTime at, UUID id, int n,
+                                           List<ConversationRead> watermarks) {
+        List<ChatMessageEntity> live = at == null
+                ? messageRepo.findLatest(conversationId, n)
+                : messageRepo.findBefore(conversationId, at, id, n);
+        List<MessageDTO> page = live.stream().map(m -> toDTO(m, watermarks)).collect(Collectors.toList());
+        if (page.size() < n && archive.archivedBefore() != null) {
+            MessageDTO oldest = page.isEmpty() ? null : page.get(page.size() - 1);
+            archive.readBefore(conversationId,
+                            oldest == null ? at : oldest.getSentAt(),
+                            oldest == null ? id : oldest.getId(),
+                            n - page.size())
+                    .forEach(m -> page.add(toDTO(m, watermarks)));
+        }
+        return page;
+    }
+
+    // Oldest first: the archive while the position is in it, then live partitions
+    private List<MessageDTO> pageForwards(UUID conversationId, LocalDateTime at, UUID id, int n,
+                                          List<ConversationRead> watermarks) {
+        List<MessageDTO> page = new ArrayList<>(n);
+        LocalDateTime archivedBefore = archive.archivedBefore();
+        if (archivedBefore != null && at.isBefore(archivedBefore)) {
+            archive.readAfter(conversationId, at, id, n).forEach(m -> page.add(toDTO(m, watermarks)));
+        }
+        if (page.size() < n) {
+            MessageDTO newest = page.isEmpty() ? null : page.get(page.size() - 1);
+            messageRepo.findAfter(conversationId,
+                            newest == null ? at : newest.getSentAt(),
+                            newest == null ? id : newest.getId(),
+                            n - page.size())
+                    .forEach(m -> page.add(toDTO(m, watermarks)));
+        }
+        return page;
+    }
+
+    public static int clampHistoryPage(Integer limit) {
+        if (limit == null || limit <= 0) return DEFAULT_HISTORY_PAGE_SIZE;
+        return Math.min(limit, MAX_HISTORY_PAGE_SIZE);
     }
 
     @Transactional(readOnly = true)
     public List<MessageDTO> listRecent(UUID conversationId, int page, int size) {
+        List<ConversationRead> watermarks = readRepo.findById_ConversationId(conversationId);
         return messageRepo.findByConversation_IdOrderBySentAtDesc(conversationId, PageRequest.of(page, size))
-                .stream().map(this::toDTO).collect(Collectors.toList());
+                .stream().map(m -> toDTO(m, watermarks)).collect(Collectors.toList());
     }
 
+    /**
+     * Moves the reader's watermark to upTo (a message id), or to the newest message when null, with one
+     * upsert. The watermark never moves backwards. Returns how many messages from others became read;
+     * the new position is pushed to /topic/chat.{conversationId}.read after commit.
+     */
     @Transactional
-    public int markRead(UUID conversationId, UUID readerId) {
-        // optimistic: mark all messages from the other participant as read
-        List<ChatMessageEntity> latest = messageRepo.findByConversation_IdOrderBySentAtDesc(conversationId, PageRequest.of(0, 200));
-        int updated = 0;
-        for (ChatMessageEntity m : latest) {
-            if (!Objects.equals(m.getSender().getId(), readerId) && !m.isRead()) {
-                m.setRead(true);
-                updated++;
-            }
-        }
-        if (updated > 0) messageRepo.saveAll(latest);
-        return updated;
+    public int markRead(UUID conversationId, UUID readerId, UUID upTo) {
+        ConversationRead.Key key = new ConversationRead.Key(conversationId, readerId);
+        ConversationRead before = readRepo.findById(key).orElse(null);
+        LocalDateTime fromAt = before == null ? null : before.getLastReadAt();
+        UUID fromId = before == null ? null : before.getLastReadMessageId();
+        int moved = upTo == null
+                ? readRepo.advanceToLatest(conversationId, readerId)
+                : readRepo.advanceTo(conversationId, readerId, upTo);
+        if (moved == 0) return 0;
+
+        // the upserts clear the persistence context, so this reads the new watermark
+        ConversationRead after = readRepo.findById(key).orElseThrow();
+        events.publishEvent(new ConversationReadEvent(conversationId, readerId,
+                after.getLastReadMessageId(), after.getLastReadAt()));
+        // only the range the watermark just passed over is counted
+        long newlyRead = fromAt == null
+                ? readRepo.countFromOthersUpTo(conversationId, readerId, after.getLastReadAt(), after.getLastReadMessageId())
+                : readRepo.countFromOthersBetween(conversationId, readerId, fromAt, fromId,
+                        after.getLastReadAt(), after.getLastReadMessageId());
+        return (int) newlyRead;
+    }
+
+    @Transactional(readOnly = true)
+    public long unreadCount(UUID conversationId, UUID userId) {
+        return readRepo.countUnread(conversationId, userId);
+    }
+
+    // Read receipts for the other side, once the watermark is committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onConversationRead(ConversationReadEvent event) {
+        ws.convertAndSend("/topic/chat." + event.conversationId() + ".read", event);
+    }
+
+    // Conversations from before watermarks / last_message_* existed keep their state
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillChatState() {
+        migrations.runOnce("chat-read-watermarks", () -> {
+            int seeded = readRepo.seedFromLegacyFlags();
+            log.info("Seeded {} chat read watermarks from is_read flags", seeded);
+        });
+        migrations.runOnce("conversation-activity", () -> {
+            int touched = conversationRepo.backfillLastMessage();
+            int seeded = conversationRepo.seedActivityFromCreatedAt();
+            conversationRepo.requireActivity();
+            log.info("Backfilled last message on {} conversations, {} without messages", touched, seeded);
+        });
     }
 }
@@ -1,12 +1,15 @@
 // backend/src/main/java/NeonSquare/backend/services/CommentService.java
 package NeonSquare.backend.services;
 
+import NeonSquare.backend.events.PostChangedEvent;
 import NeonSquare.backend.models.Comment;
 import NeonSquare.backend.models.Post;
 import NeonSquare.backend.models.User;
 import NeonSquare.backend.models.enums.NotificationType;
 import NeonSquare.backend.repositories.CommentRepository;
+import NeonSquare.backend.repositories.PostRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,18 +20,33 @@ import java.util.UUID;
 @Service
 public class CommentService {
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher events;
 
     public CommentService(CommentRepository commentRepository,
-                          NotificationService notificationService) {
+                          PostRepository postRepository,
+                          NotificationService notificationService,
+                          ApplicationEventPublisher events) {
         this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
         this.notificationService = notificationService;
+        this.events = events;
     }
 
     @Transactional
     public Comment createComment(Comment comment) {
         Comment saved = commentRepository.save(comment);
 
+        // Counters are bumped in SQL; the in-memory Post/Comment values stay untouched
+        if (saved.getPost() != null) {
+            postRepository.adjustCommentCount(saved.getPost().getId(), 1);
+            events.publishEvent(new PostChangedEvent(saved.getPost().getId()));
+        }
+        if (saved.getComment() != null) {
+            commentRepository.adjustReplyCount(saved.getComment().getId(), 1);
+        }
+
         try {
             // Reply
             if (saved.getComment() != null) {
@@ -0,0 +1,55 @@
+// backend/src/main/java/NeonSquare/backend/services/ConversationParticipantCache.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.repositories.ConversationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * conversationId -> its two users, for the membership check on every chat send.
+ * A conversation's participants never change and conversations are never deleted, so entries
+ * only leave by size; unknown ids are not cached and hit the database each time.
+ * Stats show up under /actuator/metrics/cache.* (cache=chat.participants).
+ */
+@Service
+public class ConversationParticipantCache {
+
+    private record Participants(UUID userA, UUID userB) {
+        boolean includes(UUID userId) {
+            return userA.equals(userId) || userB.equals(userId);
+        }
+    }
+
+    private final ConversationRepository conversationRepo;
+    private final Cache<UUID, Participants> cache;
+
+    public ConversationParticipantCache(ConversationRepository conversationRepo,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${chat.participants-cache.max-size:100000}") long maxSize) {
+        this.conversationRepo = conversationRepo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.participants");
+    }
+
+    /** False for an unknown conversation as well. */
+    public boolean isParticipant(UUID conversationId, UUID userId) {
+        Participants participants = cache.get(conversationId, id -> conversationRepo.findParticipants(id)
+                .map(p -> new Participants(p.getUserAId(), p.getUserBId()))
+                .orElse(null));
+        return participants != null && participants.includes(userId);
+    }
+
+    /** Seeds a conversation that was just looked up or created. */
+    public void put(UUID conversationId, UUID userA, UUID userB) {
+        cache.put(conversationId, new Participants(userA, userB));
+    }
+}
@@ -0,0 +1,83 @@
+// backend/src/main/java/NeonSquare/backend/services/CounterReconciliationService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.repositories.CommentRepository;
+import NeonSquare.backend.repositories.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Recomputes the denormalized counters on post/comment from the source tables.
+ * Runs in id-ordered batches, one short transaction per batch, and only rewrites rows that drifted.
+ */
+@Slf4j
+@Service
+public class CounterReconciliationService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final DataMigrations migrations;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${counters.reconcile-batch-size:500}")
+    private int batchSize;
+
+    public CounterReconciliationService(PostRepository postRepository,
+                                        CommentRepository commentRepository,
+                                        DataMigrations migrations) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.migrations = migrations;
+    }
+
+    // Rows that predate the counter columns start at 0: one full pass per database, then only the nightly run
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAfterStartup() {
+        migrations.runOnce("post-comment-counters", this::reconcileAll);
+    }
+
+    @Scheduled(cron = "${counters.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcileAll();
+    }
+
+    /** @return number of rows whose counters were corrected, or -1 if a run is already in progress */
+    public int reconcileAll() {
+        if (!running.compareAndSet(false, true)) return -1;
+        try {
+            int posts = reconcile(postRepository::findIdBatch, postRepository::recomputeCounters);
+            int comments = reconcile(commentRepository::findIdBatch, commentRepository::recomputeCounters);
+            log.info("Counter reconciliation fixed {} posts and {} comments", posts, comments);
+            return posts + comments;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int reconcile(BiFunction<UUID, Integer, List<UUID>> nextBatch,
+                          Function<List<UUID>, Integer> recompute) {
+        int size = Math.max(1, batchSize);
+        int fixed = 0;
+        UUID after = MIN_UUID;
+        while (true) {
+            List<UUID> ids = nextBatch.apply(after, size);
+            if (ids.isEmpty()) break;
+            fixed += recompute.apply(ids);
+            if (ids.size() < size) break;
+            after = ids.get(ids.size() - 1);
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,26 @@
+// backend/src/main/java/NeonSquare/backend/services/DataMigrations.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.repositories.DataMigrationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs startup backfills once per database instead of on every boot. A backfill is marked done in
+ * data_migration only after it returns, so a crash mid-way retries it next time. Nodes starting
+ * together may both run it, so backfills must stay idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataMigrations {
+
+    private final DataMigrationRepository repository;
+
+    /** @return false if the backfill had already been done */
+    public boolean runOnce(String name, Runnable backfill) {
+        if (repository.existsById(name)) return false;
+        backfill.run();
+        repository.markDone(name);
+        return true;
+    }
+}
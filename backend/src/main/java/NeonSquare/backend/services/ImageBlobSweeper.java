@@ -0,0 +1,82 @@
+// backend/src/main/java/NeonSquare/backend/services/ImageBlobSweeper.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.repositories.ImageBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps image_blob.ref_count honest and removes payloads nothing points at any more.
+ * Paths that bypass ImageService (e.g. cascades from other entities) only leave stale counts
+ * behind; this job recounts them from image/image_variant and deletes zero-reference blobs.
+ * Blobs touched within images.blob-sweep.grace are skipped so in-flight uploads are never collected.
+ */
+@Slf4j
+@Service
+public class ImageBlobSweeper {
+
+    private final ImageBlobRepository blobRepository;
+    private final ImageService imageService;
+    private final DataMigrations migrations;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${images.blob-sweep.grace:1h}")
+    private Duration grace;
+
+    @Value("${images.blob-sweep.batch-size:500}")
+    private int batchSize;
+
+    public ImageBlobSweeper(ImageBlobRepository blobRepository,
+                            ImageService imageService,
+                            DataMigrations migrations) {
+        this.blobRepository = blobRepository;
+        this.imageService = imageService;
+        this.migrations = migrations;
+    }
+
+    // Registers blobs stored before image_blob existed, once per database; later drift is the cron's job
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepAfterStartup() {
+        migrations.runOnce("image-blob-registration", this::sweep);
+    }
+
+    @Scheduled(cron = "${images.blob-sweep.cron:0 45 3 * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    /** @return number of blobs deleted, or -1 if a sweep is already running */
+    public int sweep() {
+        if (!running.compareAndSet(false, true)) return -1;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(grace);
+            int recounted = blobRepository.recountReferenced(cutoff);
+            int orphaned = blobRepository.zeroUnreferenced(cutoff);
+
+            int deleted = 0;
+            int size = Math.max(1, batchSize);
+            while (true) {
+                List<String> keys = blobRepository.findUnreferenced(cutoff, size);
+                int before = deleted;
+                for (String key : keys) {
+                    if (imageService.deleteBlobIfUnreferenced(key)) deleted++;
+                }
+                // rows that could not be removed stay at zero and would come back in every batch
+                if (keys.size() < size || deleted == before) break;
+            }
+            log.info("Image blob sweep: {} counts corrected, {} orphaned, {} deleted", recounted, orphaned, deleted);
+            return deleted;
+        } finally {
+            running.set(false);
+        }
+    }
+}
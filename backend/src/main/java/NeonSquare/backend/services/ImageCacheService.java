@@ -0,0 +1,278 @@
+// backend/src/main/java/NeonSquare/backend/services/ImageCacheService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.models.enums.ImageSize;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot-image cache in front of ImageStorage for small payloads (avatars, group pictures, thumbnails).
+ * Bytes live in direct ByteBuffers, outside the Java heap, so the working set does not age into the
+ * old generation; Caffeine's W-TinyLFU keeps the frequently requested ones within images.cache.max-size.
+ * Entries carry everything a response needs, so a hit is served without a database round-trip.
+ * <p>
+ * Buffers are not left to the GC when entries go: each entry is reference counted (the cache holds one
+ * reference, every response being written holds another), and the last release returns the buffer to
+ * a pool of power-of-two size classes that later puts draw from. The pool keeps at most
+ * images.cache.pool-size; beyond that released buffers are dropped. -XX:MaxDirectMemorySize must exceed
+ * max-size plus pool-size. Stats show up under /actuator/metrics/cache.* (cache=images) and images.cache.*.
+ */
+@Slf4j
+@Service
+public class ImageCacheService {
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final Cache<ImageKey, CachedImage> cache;
+    private final BufferPool pool;
+
+    // size == null is the original
+    private record ImageKey(UUID imageId, ImageSize size) {}
+
+    /**
+     * Cached payload plus the metadata needed to answer without loading the Image row.
+     * Instances handed out by get and put are retained for the caller, who must release them once
+     * the response has been written; the bytes may be reused for another image after that.
+     */
+    public static final class CachedImage {
+        private final ByteBuffer content;
+        private final String type;
+        private final String name;
+        private final String etag;
+        private final BufferPool pool;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private CachedImage(ByteBuffer content, String type, String name, String etag, BufferPool pool) {
+            this.content = content;
+            this.type = type;
+            this.name = name;
+            this.etag = etag;
+            this.pool = pool;
+        }
+
+        public String type() {
+            return type;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        // fails once the last reference is gone, i.e. the buffer may already hold another image
+        private boolean retain() {
+            int n;
+            do {
+                n = refs.get();
+                if (n <= 0) return false;
+            } while (!refs.compareAndSet(n, n + 1));
+            return true;
+        }
+
+        public void release() {
+            if (refs.decrementAndGet() == 0) pool.recycle(content);
+        }
+
+        /** A read-only view over the shared buffer; each call gets its own position. Valid until release. */
+        public Resource openContent() {
+            ByteBuffer view = content.asReadOnlyBuffer();
+            return new AbstractResource() {
+                @Override
+                public String getDescription() {
+                    return "cached image " + etag;
+                }
+
+                @Override
+                public boolean exists() {
+                    return true;
+                }
+
+                @Override
+                public long contentLength() {
+                    return view.remaining();
+                }
+
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteBufferInputStream(view.duplicate());
+                }
+            };
+        }
+    }
+
+    public ImageCacheService(MeterRegistry meterRegistry,
+                             @Value("${images.cache.enabled:true}") boolean enabled,
+                             @Value("${images.cache.max-size:64MB}") DataSize maxSize,
+                             @Value("${images.cache.max-entry-size:512KB}") DataSize maxEntrySize,
+                             @Value("${images.cache.pool-size:16MB}") DataSize poolSize) {
+        this.enabled = enabled;
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), 1 << 30);
+        this.pool = new BufferPool(poolSize.toBytes());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<ImageKey, CachedImage>weigher((k, v) -> 128 + v.content.capacity())
+                // evicted, replaced or invalidated: drop the cache's reference
+                .<ImageKey, CachedImage>removalListener((k, v, cause) -> {
+                    if (v != null) v.release();
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "images");
+        Gauge.builder("images.cache.resident.bytes", cache, ImageCacheService::weightedSize)
+                .description("Off-heap bytes held by the image cache")
+                .register(meterRegistry);
+        Gauge.builder("images.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(meterRegistry);
+        Gauge.builder("images.cache.pooled.bytes", pool, BufferPool::pooledBytes)
+                .description("Off-heap bytes of released buffers kept for reuse")
+                .register(meterRegistry);
+    }
+
+    /** A retained entry, or null; the caller must release it. */
+    public CachedImage get(UUID imageId, ImageSize size) {
+        if (!enabled) return null;
+        CachedImage cached = cache.getIfPresent(new ImageKey(imageId, size));
+        // lost a race with eviction: the buffer is on its way back to the pool
+        return cached != null && cached.retain() ? cached : null;
+    }
+
+    /**
+     * Copies a stored payload off-heap and caches it. Only content-addressed payloads (etag != null)
+     * up to images.cache.max-entry-size are admitted; returns null when the payload is not cached,
+     * otherwise an entry retained for the caller, who must release it.
+     */
+    public CachedImage put(UUID imageId, ImageSize size, Resource content, String type, String name, String etag)
+            throws IOException {
+        if (!enabled || etag == null) return null;
+        long length = content.contentLength();
+        if (length > maxEntryBytes) return null;
+
+        ByteBuffer buffer = pool.take((int) length);
+        try (ReadableByteChannel channel = content.readableChannel()) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+        } catch (IOException | RuntimeException e) {
+            pool.recycle(buffer);
+            throw e;
+        }
+        if (buffer.hasRemaining()) {
+            log.warn("Image {} shorter than expected, not cached", imageId);
+            pool.recycle(buffer);
+            return null;
+        }
+        buffer.flip();
+        CachedImage cached = new CachedImage(buffer, type, name, etag, pool);
+        cached.retain();
+        cache.put(new ImageKey(imageId, size), cached);
+        return cached;
+    }
+
+    /** Drops every size of an image, e.g. when it is deleted or its derivatives are rebuilt. */
+    public void invalidate(UUID imageId) {
+        cache.asMap().keySet().removeIf(k -> k.imageId().equals(imageId));
+    }
+
+    private static long weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Free lists of direct buffers by power-of-two capacity (4 KB and up). take hands out a buffer
+     * whose limit is the requested length; recycle keeps it for reuse while the pool is under budget.
+     */
+    private static final class BufferPool {
+        private static final int MIN_SHIFT = 12;
+
+        private final long maxPooledBytes;
+        private final AtomicLong pooledBytes = new AtomicLong();
+        private final ConcurrentHashMap<Integer, ConcurrentLinkedQueue<ByteBuffer>> free = new ConcurrentHashMap<>();
+
+        BufferPool(long maxPooledBytes) {
+            this.maxPooledBytes = maxPooledBytes;
+        }
+
+        ByteBuffer take(int length) {
+            int capacity = Math.max(1 << MIN_SHIFT, Integer.highestOneBit(Math.max(1, length - 1)) << 1);
+            ConcurrentLinkedQueue<ByteBuffer> queue = free.get(capacity);
+            ByteBuffer buffer = queue != null ? queue.poll() : null;
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(capacity);
+            } else {
+                pooledBytes.addAndGet(-capacity);
+            }
+            buffer.clear().limit(length);
+            return buffer;
+        }
+
+        void recycle(ByteBuffer buffer) {
+            int capacity = buffer.capacity();
+            if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+                pooledBytes.addAndGet(-capacity);
+                return; // over budget: left to the GC
+            }
+            free.computeIfAbsent(capacity, c -> new ConcurrentLinkedQueue<>()).offer(buffer);
+        }
+
+        long pooledBytes() {
+            return pooledBytes.get();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+// backend/src/main/java/NeonSquare/backend/services/ImageDerivativeService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.events.ImageStoredEvent;
+import NeonSquare.backend.models.Image;
+import NeonSquare.backend.models.ImageVariant;
+import NeonSquare.backend.models.enums.ImageSize;
+import NeonSquare.backend.repositories.ImageRepository;
+import NeonSquare.backend.repositories.ImageVariantRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds AVATAR / CARD / FULL renditions of uploaded images with javax.imageio.
+ * Work runs after the upload commits, on a small bounded pool of its own; when the queue is full
+ * the job is dropped and the original keeps being served for every size.
+ * Dimensions are read from the header before anything is decoded, and images above
+ * images.derivatives.max-pixels are skipped: decoding needs about 4 bytes per pixel of heap,
+ * so a small, highly compressed file could otherwise claim gigabytes.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private final ImageRepository imageRepository;
+    private final ImageVariantRepository variantRepository;
+    private final ImageService imageService;
+    private final ImageCacheService imageCache;
+    private final TransactionTemplate tx;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    public ImageDerivativeService(ImageRepository imageRepository,
+                                  ImageVariantRepository variantRepository,
+                                  ImageService imageService,
+                                  ImageCacheService imageCache,
+                                  TransactionTemplate tx,
+                                  @Value("${images.derivatives.threads:2}") int threads,
+                                  @Value("${images.derivatives.queue-capacity:200}") int queueCapacity,
+                                  @Value("${images.derivatives.max-pixels:25000000}") long maxPixels) {
+        this.imageRepository = imageRepository;
+        this.variantRepository = variantRepository;
+        this.imageService = imageService;
+        this.imageCache = imageCache;
+        this.tx = tx;
+        this.maxPixels = maxPixels;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "image-derivatives-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageStored(ImageStoredEvent event) {
+        submit(event.imageId());
+    }
+
+    public void submit(UUID imageId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId);
+                } catch (Exception e) {
+                    log.warn("Derivatives failed for image {}: {}", imageId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Derivative queue full, image {} will be served at original size", imageId);
+        }
+    }
+
+    void generate(UUID imageId) throws IOException {
+        Image image = imageRepository.findById(imageId).orElse(null);
+        if (image == null) return;
+        String sourceKey = image.getStorageKey();
+
+        BufferedImage src = decode(image);
+        if (src == null) return;
+
+        int longest = Math.max(src.getWidth(), src.getHeight());
+        boolean alpha = src.getColorModel().hasAlpha();
+        List<ImageVariant> built = new ArrayList<>();
+        for (ImageSize size : ImageSize.values()) {
+            // never upscale: smaller originals are served as-is for that size
+            if (longest <= size.getMaxEdge()) continue;
+            BufferedImage scaled = scale(src, size.getMaxEdge(), alpha);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, alpha ? "png" : "jpg", out);
+            ImageStorage.StoredBlob blob = imageService.storeBlob(new ByteArrayInputStream(out.toByteArray()));
+            built.add(ImageVariant.builder()
+                    .size(size)
+                    .storageKey(blob.key())
+                    .byteSize(blob.size())
+                    .type(alpha ? "image/png" : "image/jpeg")
+                    .width(scaled.getWidth())
+                    .height(scaled.getHeight())
+                    .build());
+        }
+
+        // keys this job no longer needs: the replaced variants, or its own output if it lost the race
+        List<String> replacedKeys = tx.execute(status -> {
+            Image managed = imageRepository.findById(imageId).orElse(null);
+            // deleted, or content replaced while we were working: a newer job owns it
+            if (managed == null || !Objects.equals(managed.getStorageKey(), sourceKey)) {
+                return built.stream().map(ImageVariant::getStorageKey).toList();
+            }
+
+            List<ImageVariant> old = variantRepository.findByImage_Id(imageId);
+            List<String> keys = old.stream().map(ImageVariant::getStorageKey).toList();
+            variantRepository.deleteAll(old);
+            variantRepository.flush(); // free (image_id, size) before inserting
+
+            built.forEach(v -> v.setImage(managed));
+            variantRepository.saveAll(built);
+            managed.setWidth(src.getWidth());
+            managed.setHeight(src.getHeight());
+            imageRepository.save(managed);
+            return keys;
+        });
+        if (replacedKeys != null) replacedKeys.forEach(imageService::releaseBlob);
+        // rebuilt variants replace whatever was cached for each size
+        imageCache.invalidate(imageId);
+    }
+
+    // null when there is no reader for the format or the image is over the pixel limit
+    private BufferedImage decode(Image image) throws IOException {
+        try (InputStream in = imageService.openContent(image).getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No ImageIO reader for image {} ({})", image.getId(), image.getType());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Image {} is {}x{}, over the {} pixel limit; serving the original for every size",
+                            image.getId(), reader.getWidth(0), reader.getHeight(0), maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Progressive halving with bilinear steps: close to area-averaging quality at a fraction of the cost
+    static BufferedImage scale(BufferedImage src, int maxEdge, boolean alpha) {
+        double ratio = (double) maxEdge / Math.max(src.getWidth(), src.getHeight());
+        int targetW = Math.max(1, (int) Math.round(src.getWidth() * ratio));
+        int targetH = Math.max(1, (int) Math.round(src.getHeight() * ratio));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        do {
+            w = Math.max(targetW, w / 2);
+            h = Math.max(targetH, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,75 +1,297 @@
 // backend/src/main/java/NeonSquare/backend/services/ImageService.java
 package NeonSquare.backend.services;
 
+import NeonSquare.backend.events.ImageStoredEvent;
 import NeonSquare.backend.models.Image;
+import NeonSquare.backend.models.ImageContent;
+import NeonSquare.backend.models.ImageVariant;
+import NeonSquare.backend.models.enums.ImageSize;
+import NeonSquare.backend.repositories.ImageBlobRepository;
+import NeonSquare.backend.repositories.ImageContentRepository;
 import NeonSquare.backend.repositories.ImageRepository;
+import NeonSquare.backend.repositories.ImageVariantRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
+@Slf4j
 @Service
 public class ImageService {
 
+    // enough for every magic-number signature Tika knows about images
+    private static final int SNIFF_BYTES = 8 * 1024;
+    // sniff buffer plus the transfer buffer used while copying into storage
+    private static final long PART_BUFFER_BYTES = SNIFF_BYTES + 8 * 1024;
+
     private final ImageRepository repository;
+    private final ImageVariantRepository variantRepository;
+    private final ImageBlobRepository blobRepository;
+    private final ImageContentRepository contentRepository;
+    private final ImageStorage storage;
+    private final ImageCacheService imageCache;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate newTx;
     private final Tika tika = new Tika();
+    private final SimpleAsyncTaskExecutor uploadExecutor;
+    private final int partsInFlight;
 
     @Autowired
-    public ImageService(ImageRepository repository) {
+    public ImageService(ImageRepository repository,
+                        ImageVariantRepository variantRepository,
+                        ImageBlobRepository blobRepository,
+                        ImageContentRepository contentRepository,
+                        ImageStorage storage,
+                        ImageCacheService imageCache,
+                        ApplicationEventPublisher events,
+                        PlatformTransactionManager txManager,
+                        @Value("${images.upload.request-memory-budget:1MB}") DataSize requestMemoryBudget) {
         this.repository = repository;
+        this.variantRepository = variantRepository;
+        this.blobRepository = blobRepository;
+        this.contentRepository = contentRepository;
+        this.storage = storage;
+        this.imageCache = imageCache;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partsInFlight = (int) Math.max(1, requestMemoryBudget.toBytes() / PART_BUFFER_BYTES);
+        this.uploadExecutor = new SimpleAsyncTaskExecutor("image-upload-");
+        try {
+            uploadExecutor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            log.info("Virtual threads unavailable on this JVM, uploads use platform threads");
+        }
     }
 
-    @Transactional
+    /** Parts are staged to storage before the row is written, so no connection is held during the copy. */
     public Image saveImage(MultipartFile file) throws IOException {
-        Image image = new Image();
-        image.setName(file.getOriginalFilename());
-        image.setData(file.getBytes());
-        String mimeType = tika.detect(file.getBytes());
-        image.setType(mimeType);
-
-        return repository.save(image);
+        Image saved = repository.save(stage(file));
+        events.publishEvent(new ImageStoredEvent(saved.getId()));
+        return saved;
     }
 
     public Image getImage(UUID id) {
         return repository.findById(id).orElseThrow(() -> new RuntimeException("Image not found"));
     }
 
-    @Transactional
-    public Image updateImage(MultipartFile file, UUID imageId) throws IOException {
-        Image image = repository.findById(imageId)
-                .orElseThrow(() -> new RuntimeException("Image not found"));
-        image.setName(file.getOriginalFilename());
-        image.setData(file.getBytes());
-        return repository.save(image);
+    /** Derivative of the requested size, if one was generated (small originals have none). */
+    public ImageVariant findVariant(UUID imageId, ImageSize size) {
+        return variantRepository.findByImage_IdAndSize(imageId, size).orElse(null);
+    }
+
+    public Resource openContent(ImageVariant variant) throws IOException {
+        return storage.load(variant.getStorageKey());
+    }
+
+    /** Streamable payload: the stored file, or the inline bytes for rows not migrated yet. */
+    public Resource openContent(Image image) throws IOException {
+        if (image.getStorageKey() != null) {
+            return storage.load(image.getStorageKey());
+        }
+        byte[] inline = contentRepository.findById(image.getId()).map(ImageContent::getData).orElse(null);
+        return new ByteArrayResource(inline != null ? inline : new byte[0]);
     }
 
     @Transactional
     public void deleteImage(UUID imageId) throws IOException {
         Image image = repository.findById(imageId)
                 .orElseThrow(() -> new RuntimeException("Image not found"));
+        List<String> variantKeys = dropVariants(image);
         repository.delete(image);
+        releaseBlob(image.getStorageKey());
+        variantKeys.forEach(this::releaseBlob);
+        invalidateAfterCommit(imageId);
     }
 
-    @Transactional
-    public List<Image> saveImages(List<MultipartFile> files) throws IOException {
-        List<Image> savedImages = new ArrayList<>();
+    /**
+     * For a post about to be deleted: its images and their variants go with it by cascade,
+     * so hand back their blob references and drop them from the hot cache.
+     */
+    public void releasePostImages(UUID postId) {
+        repository.findStorageKeysByPostId(postId).forEach(this::releaseBlob);
+        repository.findIdsByPostId(postId).forEach(this::invalidateAfterCommit);
+    }
 
+    /**
+     * Streams every part to storage in parallel, at most partsInFlight at a time so the request
+     * stays within images.upload.request-memory-budget, then inserts the rows in upload order.
+     */
+    public List<Image> saveImages(List<MultipartFile> files) throws IOException {
+        Semaphore budget = new Semaphore(partsInFlight);
+        List<CompletableFuture<Image>> staged = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            Image image = new Image();
-            image.setName(file.getOriginalFilename());
-            image.setData(file.getBytes());
-            String mimeType = tika.detect(file.getBytes());
-            image.setType(mimeType);
+            budget.acquireUninterruptibly();
+            staged.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return stage(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    budget.release();
+                }
+            }, uploadExecutor));
+        }
 
-            savedImages.add(repository.save(image));
+        List<Image> images = new ArrayList<>(files.size());
+        IOException failure = null;
+        for (CompletableFuture<Image> future : staged) {
+            try {
+                images.add(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof UncheckedIOException io ? io.getCause() : new IOException(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            images.forEach(image -> releaseBlob(image.getStorageKey()));
+            throw failure;
         }
 
+        List<Image> savedImages = repository.saveAll(images);
+        savedImages.forEach(saved -> events.publishEvent(new ImageStoredEvent(saved.getId())));
         return savedImages;
     }
+
+    private Image stage(MultipartFile file) throws IOException {
+        Image image = new Image();
+        image.setName(file.getOriginalFilename());
+        storeContent(image, file);
+        return image;
+    }
+
+    /**
+     * Sniffs the MIME type from the first bytes only and streams the rest straight to storage,
+     * so a part never sits on the heap beyond PART_BUFFER_BYTES.
+     */
+    private void storeContent(Image image, MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            byte[] head = in.readNBytes(SNIFF_BYTES);
+            image.setType(tika.detect(head, file.getOriginalFilename()));
+            ImageStorage.StoredBlob blob = storeBlob(new SequenceInputStream(new ByteArrayInputStream(head), in));
+            image.setStorageKey(blob.key());
+            image.setByteSize(blob.size());
+        }
+    }
+
+    private List<String> dropVariants(Image image) {
+        List<ImageVariant> variants = variantRepository.findByImage_Id(image.getId());
+        if (variants.isEmpty()) return List.of();
+        if (image.getVariants() != null) image.getVariants().clear();
+        variantRepository.deleteAll(variants);
+        variantRepository.flush();
+        return variants.stream().map(ImageVariant::getStorageKey).toList();
+    }
+
+    /**
+     * Writes a payload to storage and takes one reference on its blob. Identical content maps to the
+     * same key, so a re-upload only bumps image_blob.ref_count. Every caller must end up pointing a
+     * row at the key or hand it back through releaseBlob.
+     * <p>
+     * The bytes are staged and hashed first; the reference and the move into place then happen under
+     * the key's advisory lock, which deleteBlobIfUnreferenced takes too. A concurrent delete of the
+     * same content therefore either finishes before the file is put back, or sees the new reference.
+     */
+    public ImageStorage.StoredBlob storeBlob(InputStream content) throws IOException {
+        ImageStorage.StagedBlob staged = storage.stage(content);
+        try {
+            tx.executeWithoutResult(status -> {
+                blobRepository.lockKey(staged.key());
+                blobRepository.acquire(staged.key(), staged.size());
+                try {
+                    storage.publish(staged);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            storage.discard(staged);
+        }
+        return new ImageStorage.StoredBlob(staged.key(), staged.size());
+    }
+
+    // Until the delete commits, a concurrent request still finds the row and could re-cache the image
+    private void invalidateAfterCommit(UUID imageId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    imageCache.invalidate(imageId);
+                }
+            });
+        } else {
+            imageCache.invalidate(imageId);
+        }
+    }
+
+    /**
+     * Drops one reference; the blob is removed with the last one, and only after the transaction
+     * that dropped it commits (a rollback restores the count and keeps the file).
+     */
+    public void releaseBlob(String key) {
+        if (key == null) return;
+        blobRepository.release(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteBlobIfUnreferenced(key);
+                }
+            });
+        } else {
+            deleteBlobIfUnreferenced(key);
+        }
+    }
+
+    /**
+     * Deletes the blob row and its file if nothing references it, under the key's advisory lock (see
+     * storeBlob). If the file cannot be removed the row stays at zero references for the next sweep.
+     */
+    public boolean deleteBlobIfUnreferenced(String key) {
+        try {
+            return Boolean.TRUE.equals(newTx.execute(status -> {
+                blobRepository.lockKey(key);
+                if (blobRepository.deleteIfUnreferenced(key) == 0) return false;
+                try {
+                    storage.delete(key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            }));
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to delete image blob {}: {}", key, e.getCause().getMessage());
+            return false;
+        }
+    }
 }
@@ -0,0 +1,39 @@
+// backend/src/main/java/NeonSquare/backend/services/ImageStorage.java
+package NeonSquare.backend.services;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed blob store for image payloads.
+ * Keys are the lowercase SHA-256 hex of the bytes, so storing the same content twice
+ * yields the same key. Callers decide when a key is no longer referenced.
+ */
+public interface ImageStorage {
+
+    /**
+     * Streams the content to a private staging area and hashes it; nothing is visible under the key
+     * until publish. Staged content that is not published must be discarded.
+     */
+    StagedBlob stage(InputStream content) throws IOException;
+
+    /** Moves staged content into place under its key; a no-op when the key is already stored. */
+    void publish(StagedBlob staged) throws IOException;
+
+    /** Drops staged content; a no-op once it has been published. */
+    void discard(StagedBlob staged);
+
+    /** Readable handle for streaming; the bytes are not loaded. */
+    Resource load(String key) throws IOException;
+
+    boolean exists(String key);
+
+    void delete(String key) throws IOException;
+
+    record StoredBlob(String key, long size) {}
+
+    /** location is the implementation's handle on the staged bytes. */
+    record StagedBlob(String key, long size, String location) {}
+}
@@ -0,0 +1,105 @@
+// backend/src/main/java/NeonSquare/backend/services/ImageStorageMigration.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.models.Image;
+import NeonSquare.backend.models.ImageContent;
+import NeonSquare.backend.repositories.ImageContentRepository;
+import NeonSquare.backend.repositories.ImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One-off command that moves inline @Lob image bytes into ImageStorage.
+ *
+ *   java -jar backend.jar --migrate-images
+ *
+ * Works in batches of images.migration.batch-size rows, one transaction per batch, so only one
+ * batch of payloads is ever in memory. Safe to re-run: migrated rows are skipped. Exits when done.
+ */
+@Slf4j
+@Component
+public class ImageStorageMigration implements ApplicationRunner {
+
+    static final String OPTION = "migrate-images";
+
+    private final ImageRepository repository;
+    private final ImageContentRepository contentRepository;
+    private final ImageService imageService;
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbc;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${images.migration.batch-size:50}")
+    private int batchSize;
+
+    public ImageStorageMigration(ImageRepository repository,
+                                 ImageContentRepository contentRepository,
+                                 ImageService imageService,
+                                 TransactionTemplate tx,
+                                 JdbcTemplate jdbc,
+                                 ConfigurableApplicationContext context) {
+        this.repository = repository;
+        this.contentRepository = contentRepository;
+        this.imageService = imageService;
+        this.tx = tx;
+        this.jdbc = jdbc;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+        int moved = migrate();
+        log.info("Image migration finished: {} rows moved to storage", moved);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    public int migrate() {
+        // Hibernate maps @Lob byte[] to a large object (oid) on Postgres; those must be unlinked explicitly
+        boolean largeObjects = "oid".equalsIgnoreCase(jdbc.query(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'image' AND column_name = 'data'",
+                rs -> rs.next() ? rs.getString(1) : null));
+        int size = Math.max(1, batchSize);
+        int total = 0;
+        while (true) {
+            Integer moved = tx.execute(status -> migrateBatch(size, largeObjects));
+            if (moved == null || moved == 0) break;
+            total += moved;
+            log.info("Image migration: {} rows moved so far", total);
+        }
+        return total;
+    }
+
+    private int migrateBatch(int size, boolean largeObjects) {
+        List<UUID> ids = repository.findInlineBlobIds(size);
+        for (UUID id : ids) {
+            Image image = repository.findById(id).orElse(null);
+            byte[] data = contentRepository.findById(id).map(ImageContent::getData).orElse(null);
+            if (image == null || data == null) continue;
+            try {
+                ImageStorage.StoredBlob blob = imageService.storeBlob(new ByteArrayInputStream(data));
+                if (largeObjects) {
+                    jdbc.queryForList("SELECT lo_unlink(data) FROM image WHERE id = ? AND data IS NOT NULL", id);
+                }
+                image.setStorageKey(blob.key());
+                image.setByteSize(blob.size());
+                repository.save(image);
+                repository.clearInlineData(id);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to migrate image " + id, e);
+            }
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,119 @@
+// backend/src/main/java/NeonSquare/backend/services/LocalDiskImageStorage.java
+package NeonSquare.backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stores blobs as files under images.storage.local.root, fanned out as ab/cd/abcd....
+ * Writes are staged in a temp file first and moved into place atomically, so readers never see partial files.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "images.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalDiskImageStorage implements ImageStorage {
+
+    private final Path root;
+    private final Path tmp;
+
+    public LocalDiskImageStorage(@Value("${images.storage.local.root:./data/images}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve(".tmp");
+        Files.createDirectories(this.tmp);
+        log.info("Image storage at {}", this.root);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        MessageDigest sha256 = newDigest();
+        Path staging = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(staging), sha256)) {
+                size = content.transferTo(out);
+            }
+            return new StagedBlob(HexFormat.of().formatHex(sha256.digest()), size, staging.toString());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staging);
+            throw e;
+        }
+    }
+
+    @Override
+    public void publish(StagedBlob staged) throws IOException {
+        Path staging = stagingPath(staged);
+        Path target = pathFor(staged.key());
+        if (Files.exists(target)) {
+            // same content already stored
+            Files.deleteIfExists(staging);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException raced) {
+            Files.deleteIfExists(staging);
+        }
+    }
+
+    @Override
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(stagingPath(staged));
+        } catch (IOException e) {
+            log.warn("Failed to remove staged upload {}: {}", staged.location(), e.getMessage());
+        }
+    }
+
+    @Override
+    public Resource load(String key) throws IOException {
+        Path path = pathFor(key);
+        if (!Files.isRegularFile(path)) throw new FileNotFoundException("Image blob missing: " + key);
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(pathFor(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(pathFor(key));
+    }
+
+    private Path stagingPath(StagedBlob staged) {
+        Path path = Paths.get(staged.location()).toAbsolutePath().normalize();
+        if (!path.getParent().equals(tmp)) throw new IllegalArgumentException("Not a staged upload");
+        return path;
+    }
+
+    private Path pathFor(String key) {
+        if (key == null || !key.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // backend/src/main/java/NeonSquare/backend/services/NotificationService.java
 package NeonSquare.backend.services;
 
+import NeonSquare.backend.config.ClusterBrokerRelay;
 import NeonSquare.backend.dto.NotificationDTO;
 import NeonSquare.backend.models.Notification;
 import NeonSquare.backend.models.User;
@@ -9,8 +10,10 @@ import NeonSquare.backend.models.enums.NotificationType;
 import NeonSquare.backend.repositories.NotificationRepository;
 import NeonSquare.backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -22,10 +25,15 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
+    // Per-user STOMP destination, subscribed as /user/queue/notifications
+    public static final String USER_QUEUE = "/queue/notifications";
+    public static final int MAX_CATCH_UP = 100;
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate ws;
+    private final SimpUserRegistry userRegistry;
+    private final ClusterBrokerRelay clusterRelay;
 
     private NotificationDTO toDTO(Notification n) {
         return NotificationDTO.builder()
@@ -44,6 +52,28 @@ public class NotificationService {
                 .stream().map(this::toDTO).toList();
     }
 
+    /** The newest {@code limit} notifications, newest first (limit=1 tells a client where "now" is). */
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> listNewest(UUID userId, int limit) {
+        return notificationRepository.findNewestByUserId(userId, PageRequest.of(0, clampCatchUp(limit)))
+                .stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * Catch-up for a reconnecting client: notifications after ({@code since}, {@code afterId}),
+     * oldest first, at most {@code limit} (capped at MAX_CATCH_UP). A full page means there may be
+     * more: the client asks again from the createDate and id of the last row.
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> listSince(UUID userId, LocalDateTime since, UUID afterId, int limit) {
+        return notificationRepository.findByUserIdCreatedAfter(userId, since, afterId, clampCatchUp(limit))
+                .stream().map(this::toDTO).toList();
+    }
+
+    private static int clampCatchUp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CATCH_UP));
+    }
+
     @Transactional(readOnly = true)
     public long countUnread(UUID userId) {
         return notificationRepository.countByUserIdAndStatus(userId, NotificationStatus.New);
@@ -92,7 +122,11 @@ public class NotificationService {
         n = notificationRepository.save(n);
 
         NotificationDTO dto = toDTO(n);
-        ws.convertAndSend("/topic/user." + userId, dto);
+        // No live session, no frame: the client picks it up through listSince on reconnect.
+        // The registry only knows this node's sessions, so a cluster always publishes.
+        if (clusterRelay.isClustered() || userRegistry.getUser(userId.toString()) != null) {
+            ws.convertAndSendToUser(userId.toString(), USER_QUEUE, dto);
+        }
         return dto;
     }
 }
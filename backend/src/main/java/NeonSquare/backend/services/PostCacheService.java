@@ -0,0 +1,205 @@
+// backend/src/main/java/NeonSquare/backend/services/PostCacheService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.PostDTO;
+import NeonSquare.backend.dto.PostFeedRow;
+import NeonSquare.backend.dto.ReactionDTO;
+import NeonSquare.backend.dto.UserDTO;
+import NeonSquare.backend.events.PostChangedEvent;
+import NeonSquare.backend.events.PostCreatedEvent;
+import NeonSquare.backend.repositories.PostRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache in front of PostService for the global feed and single posts.
+ * Nothing cached depends on the viewer: feed pages are cached as post-id lists and posts as DTOs
+ * built with no viewer, both shared by every reader. The viewer's own reaction is one small query
+ * per request, laid over copies of the cached DTOs.
+ * A committed change drops only that post and the head pages (the only pages a new or bumped post
+ * can enter); a page still listing a deleted or hidden post just skips it when hydrating.
+ * Non-public posts are never cached and always go through PostService.getPostView.
+ * Stats show up under /actuator/metrics/cache.* (cache=posts.feed|posts.detail).
+ */
+@Service
+public class PostCacheService {
+
+    private final PostService postService;
+    private final boolean enabled;
+    private final Cache<PageKey, CursorPage<UUID>> pageCache;
+    private final Cache<UUID, PostDTO> postCache;
+
+    // Bumped before every invalidation. A load re-checks it after storing and drops what it stored
+    // if a write committed meanwhile, so pre-commit data never outlives the invalidation.
+    private final AtomicLong writes = new AtomicLong();
+
+    private record PageKey(String cursor, int limit) {
+        boolean isHead() {
+            return cursor == null;
+        }
+    }
+
+    public PostCacheService(PostService postService,
+                            MeterRegistry meterRegistry,
+                            @Value("${post-cache.enabled:true}") boolean enabled,
+                            @Value("${post-cache.feed.max-size:16MB}") DataSize feedMaxSize,
+                            @Value("${post-cache.feed.ttl:30s}") Duration feedTtl,
+                            @Value("${post-cache.detail.max-size:16MB}") DataSize detailMaxSize,
+                            @Value("${post-cache.detail.ttl:5m}") Duration detailTtl) {
+        this.postService = postService;
+        this.enabled = enabled;
+        this.pageCache = Caffeine.newBuilder()
+                .maximumWeight(feedMaxSize.toBytes())
+                .<PageKey, CursorPage<UUID>>weigher((k, page) -> weigh(page))
+                .expireAfterWrite(feedTtl)
+                .recordStats()
+                .build();
+        this.postCache = Caffeine.newBuilder()
+                .maximumWeight(detailMaxSize.toBytes())
+                .<UUID, PostDTO>weigher((k, post) -> weigh(post))
+                .expireAfterWrite(detailTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pageCache, "posts.feed");
+        CaffeineCacheMetrics.monitor(meterRegistry, postCache, "posts.detail");
+        Gauge.builder("posts.cache.weight.bytes", pageCache, PostCacheService::weightedSize)
+                .tag("cache", "posts.feed").register(meterRegistry);
+        Gauge.builder("posts.cache.weight.bytes", postCache, PostCacheService::weightedSize)
+                .tag("cache", "posts.detail").register(meterRegistry);
+    }
+
+    public CursorPage<PostDTO> getFeed(String cursor, Integer limit, UUID viewerId) {
+        int size = PostService.clampPageSize(limit);
+        if (!enabled) return loadFeed(cursor, size, viewerId);
+
+        PageKey key = new PageKey(cursor, size);
+        CursorPage<UUID> ids = pageCache.getIfPresent(key);
+        List<PostDTO> items;
+        if (ids == null) {
+            long seen = writes.get();
+            CursorPage<PostDTO> page = loadFeed(cursor, size, null);
+            items = page.getItems();
+            ids = new CursorPage<>(items.stream().map(PostDTO::getId).toList(), page.getNextCursor());
+            pageCache.put(key, ids);
+            items.forEach(post -> postCache.put(post.getId(), post));
+            if (writes.get() != seen) {
+                pageCache.invalidate(key);
+                postCache.invalidateAll(ids.getItems());
+            }
+        } else {
+            items = posts(ids.getItems());
+        }
+        return new CursorPage<>(withViewerReactions(items, viewerId), ids.getNextCursor());
+    }
+
+    public PostDTO getPost(UUID postId, UUID viewerId) {
+        if (!enabled) return loadPost(postId, viewerId);
+        List<PostDTO> cached = posts(List.of(postId));
+        // not public (or gone): checked against the viewer's friendships, never cached
+        if (cached.isEmpty()) return loadPost(postId, viewerId);
+        return withViewerReactions(cached, viewerId).get(0);
+    }
+
+    // Cached posts for the ids in order; misses load in one query, ids no longer public drop out
+    private List<PostDTO> posts(List<UUID> ids) {
+        Map<UUID, PostDTO> found = new HashMap<>(postCache.getAllPresent(ids));
+        List<UUID> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long seen = writes.get();
+            Map<UUID, PostDTO> loaded = postService.getPostViews(missing, null).stream()
+                    .map(row -> new PostDTO(row, null))
+                    .collect(Collectors.toMap(PostDTO::getId, Function.identity()));
+            postCache.putAll(loaded);
+            if (writes.get() != seen) postCache.invalidateAll(loaded.keySet());
+            found.putAll(loaded);
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<PostDTO> withViewerReactions(List<PostDTO> posts, UUID viewerId) {
+        if (viewerId == null || posts.isEmpty()) return posts;
+        Map<UUID, PostRepository.ViewerReactionRow> mine = postService
+                .getViewerReactions(posts.stream().map(PostDTO::getId).toList(), viewerId).stream()
+                .collect(Collectors.toMap(PostRepository.ViewerReactionRow::getPostId, Function.identity()));
+        if (mine.isEmpty()) return posts;
+        return posts.stream().map(post -> {
+            PostRepository.ViewerReactionRow r = mine.get(post.getId());
+            return r == null ? post : post.withViewerReaction(r.getType(), r.getReactionId(), r.getReactedAt(), viewerId);
+        }).toList();
+    }
+
+    private CursorPage<PostDTO> loadFeed(String cursor, int limit, UUID viewerId) {
+        CursorPage<PostFeedRow> page = postService.getFeedPage(cursor, limit, viewerId);
+        List<PostDTO> items = page.getItems().stream().map(row -> new PostDTO(row, viewerId)).toList();
+        return new CursorPage<>(items, page.getNextCursor());
+    }
+
+    private PostDTO loadPost(UUID postId, UUID viewerId) {
+        return new PostDTO(postService.getPostView(postId, viewerId), viewerId);
+    }
+
+    // --- invalidation ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        writes.incrementAndGet();
+        invalidateHeadPages();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        writes.incrementAndGet();
+        invalidateHeadPages();
+        if (event.postId() != null) postCache.invalidate(event.postId());
+    }
+
+    // An edit bumps updated_at and a new post has the newest one: either way only head pages gain it
+    private void invalidateHeadPages() {
+        pageCache.asMap().keySet().removeIf(PageKey::isHead);
+    }
+
+    // --- sizing: rough retained-heap estimates, good enough to bound the cache by bytes ---
+
+    private static long weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static int weigh(CursorPage<UUID> page) {
+        return 64 + chars(page.getNextCursor()) + 32 * page.getItems().size();
+    }
+
+    private static int weigh(PostDTO p) {
+        int w = 160 + chars(p.getText());
+        UserDTO a = p.getAuthor();
+        if (a != null) {
+            w += 96 + chars(a.getFirstName()) + chars(a.getLastName()) + chars(a.getEmail())
+                    + chars(a.getProfilePicUrl()) + chars(a.getStatus());
+        }
+        if (p.getImageUrls() != null) {
+            for (String url : p.getImageUrls()) w += 16 + chars(url);
+        }
+        List<ReactionDTO> reactions = p.getReactions();
+        if (reactions != null) w += 80 * reactions.size();
+        return w;
+    }
+
+    private static int chars(String s) {
+        return s == null ? 0 : 40 + 2 * s.length();
+    }
+}
@@ -1,25 +1,96 @@
 // NeonSquare/backend/src/main/java/NeonSquare/backend/services/PostService.java
 package NeonSquare.backend.services;
 
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.FeedCursor;
+import NeonSquare.backend.dto.PostFeedRow;
+import NeonSquare.backend.events.PostChangedEvent;
+import NeonSquare.backend.events.PostCreatedEvent;
 import NeonSquare.backend.models.Post;
 import NeonSquare.backend.models.User;
 import NeonSquare.backend.repositories.PostRepository;
+import NeonSquare.backend.repositories.TimelineEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @Service
 public class PostService {
+    public static final int DEFAULT_FEED_PAGE_SIZE = 20;
+    public static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final PostRepository postRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final ImageService imageService;
+    private final ApplicationEventPublisher events;
 
-    public PostService(PostRepository postService) {
+    public PostService(PostRepository postService,
+                       TimelineEntryRepository timelineEntryRepository,
+                       ImageService imageService,
+                       ApplicationEventPublisher events) {
         this.postRepository = postService;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.imageService = imageService;
+        this.events = events;
+    }
+
+    /**
+     * Keyset page of the feed ordered by (updatedAt DESC, id DESC), one query per page.
+     * The page size is clamped to [1, MAX_FEED_PAGE_SIZE].
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostFeedRow> getFeedPage(String cursor, Integer limit, UUID viewerId) {
+        int size = clampPageSize(limit);
+        FeedCursor after = FeedCursor.decode(cursor);
+        // fetch one extra row to know whether another page exists
+        List<PostFeedRow> rows = after == null
+                ? postRepository.findFeedHead(viewerId, size + 1)
+                : postRepository.findFeedAfter(after.at(), after.id(), viewerId, size + 1);
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<PostFeedRow> page = rows.subList(0, size);
+        PostFeedRow last = page.get(size - 1);
+        return new CursorPage<>(page, new FeedCursor(last.getUpdatedAt(), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public PostFeedRow getPostView(UUID id, UUID viewerId) {
+        return postRepository.findFeedRow(id, viewerId)
+                .orElseThrow(() -> new RuntimeException("Post not found"));
+    }
+
+    /** Rows for the given ids that the viewer may see, in no particular order; missing ids are skipped. */
+    @Transactional(readOnly = true)
+    public List<PostFeedRow> getPostViews(List<UUID> ids, UUID viewerId) {
+        if (ids.isEmpty()) return List.of();
+        return postRepository.findFeedRows(ids, viewerId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostRepository.ViewerReactionRow> getViewerReactions(Collection<UUID> postIds, UUID viewerId) {
+        if (postIds.isEmpty() || viewerId == null) return List.of();
+        return postRepository.findViewerReactions(postIds, viewerId);
+    }
+
+    public static int clampPageSize(Integer limit) {
+        if (limit == null) return DEFAULT_FEED_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
     }
 
-    public List<Post> getAllFilterPosts(){
-        return postRepository.findAllByOrderByUpdatedAtDesc();
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFeedKeys() {
+        int fixed = postRepository.backfillMissingUpdatedAt();
+        if (fixed > 0) log.info("Backfilled updated_at on {} legacy posts", fixed);
     }
 
     public Post getPost(UUID id) {
@@ -29,13 +100,21 @@ public class PostService {
 
     @Transactional
     public Post createPost(Post post){
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        // timeline fan-out runs after commit, off the request thread
+        events.publishEvent(new PostCreatedEvent(saved.getId(),
+                saved.getAuthor() != null ? saved.getAuthor().getId() : null,
+                saved.getVisibility(), saved.getCreatedAt()));
+        return saved;
     }
 
     @Transactional
     public boolean removePost(UUID postId) {
         if (postRepository.existsById(postId)) {
+            timelineEntryRepository.deleteByPostId(postId);
+            imageService.releasePostImages(postId);
             postRepository.deleteById(postId);
+            events.publishEvent(new PostChangedEvent(postId));
             return true;
         }
         return false;
@@ -43,6 +122,8 @@ public class PostService {
 
     @Transactional
     public Post updatePost(Post post){
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        events.publishEvent(new PostChangedEvent(saved.getId()));
+        return saved;
     }
 }
@@ -0,0 +1,283 @@
+// backend/src/main/java/NeonSquare/backend/services/PresenceService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.config.ClusterBrokerRelay;
+import NeonSquare.backend.dto.FriendEdge;
+import NeonSquare.backend.dto.PresenceDTO;
+import NeonSquare.backend.models.enums.UserStatus;
+import NeonSquare.backend.repositories.FriendshipRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is online, from STOMP session events (authenticated sessions only, see StompAuthInterceptor).
+ *
+ * A user is online while at least one session (tab, device) is open on any node. Connect and
+ * disconnect only touch this node's in-memory counts; a periodic flush moves the users whose
+ * local count crossed zero into or out of presence_session (one row per node and user), and
+ * user_account.status follows "any unexpired row". Only users whose stored status actually
+ * changed are pushed to their friends, in one batched frame per friend, so a connection that
+ * flaps within a flush interval, or a second device on another node, costs nothing.
+ *
+ * Each node refreshes the expiry of its rows on a heartbeat. Rows of a node that stopped
+ * without cleaning up expire after presence.session-ttl, and the next sweep on any node takes
+ * their users offline.
+ */
+@Slf4j
+@Service
+public class PresenceService {
+    // Per-user STOMP destination, subscribed as /user/queue/presence
+    public static final String USER_QUEUE = "/queue/presence";
+    private static final int FLUSH_CHUNK = 1000;
+
+    private static final String UPSERT_SESSIONS = """
+            INSERT INTO presence_session (node_id, user_id, expires_at)
+            SELECT :nodeId, u, LOCALTIMESTAMP + CAST(:ttlMs AS integer) * INTERVAL '1 millisecond'
+            FROM unnest(CAST(ARRAY[:userIds] AS uuid[])) AS u
+            ON CONFLICT (node_id, user_id) DO UPDATE SET expires_at = EXCLUDED.expires_at
+            """;
+
+    private static final String MARK_ACTIVE = """
+            UPDATE user_account SET status = :active
+            WHERE id IN (:userIds) AND status IS DISTINCT FROM :active
+            RETURNING id
+            """;
+
+    // Offline only when no node has a live row for the user any more
+    private static final String MARK_OFFLINE = """
+            UPDATE user_account u SET status = :offline
+            WHERE u.id IN (:userIds) AND u.status IS DISTINCT FROM :offline
+              AND NOT EXISTS (SELECT 1 FROM presence_session p
+                              WHERE p.user_id = u.id AND p.expires_at > LOCALTIMESTAMP)
+            RETURNING u.id
+            """;
+
+    private final UUID nodeId = UUID.randomUUID();
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate sql;
+    private final FriendshipRepository friendshipRepository;
+    private final SimpMessagingTemplate ws;
+    private final ClusterBrokerRelay clusterRelay;
+    private final long sessionTtlMs;
+
+    // userId -> open sessions on this node
+    private final ConcurrentHashMap<UUID, Integer> sessionCounts = new ConcurrentHashMap<>();
+    // sessionId -> userId; disconnect events can repeat, this makes them count once
+    private final ConcurrentHashMap<String, UUID> sessionUsers = new ConcurrentHashMap<>();
+    // users whose session count crossed zero since the last flush
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // users this node has a presence_session row for; only touched by flush and heartbeat
+    private final Set<UUID> flushedOnline = ConcurrentHashMap.newKeySet();
+
+    public PresenceService(JdbcTemplate jdbc,
+                           FriendshipRepository friendshipRepository,
+                           SimpMessagingTemplate ws,
+                           ClusterBrokerRelay clusterRelay,
+                           @Value("${presence.session-ttl:45000}") long sessionTtlMs) {
+        this.jdbc = jdbc;
+        this.sql = new NamedParameterJdbcTemplate(jdbc);
+        this.friendshipRepository = friendshipRepository;
+        this.ws = ws;
+        this.clusterRelay = clusterRelay;
+        this.sessionTtlMs = sessionTtlMs;
+    }
+
+    /** Whether the user has a session on this node. */
+    public boolean isOnline(UUID userId) {
+        return sessionCounts.containsKey(userId);
+    }
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        UUID userId = userIdOf(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId == null || sessionId == null) return;
+        if (sessionUsers.putIfAbsent(sessionId, userId) != null) return;
+        if (sessionCounts.merge(userId, 1, Integer::sum) == 1) {
+            dirty.add(userId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        UUID userId = sessionUsers.remove(event.getSessionId());
+        if (userId == null) return;
+        Integer left = sessionCounts.computeIfPresent(userId, (id, n) -> n <= 1 ? null : n - 1);
+        if (left == null) {
+            dirty.add(userId);
+        }
+    }
+
+    // Nobody has a session on this node right after start. A single node also owns every row a
+    // previous run left behind; in a cluster those expire on their own.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resetStatuses() {
+        if (!clusterRelay.isClustered()) {
+            jdbc.update("DELETE FROM presence_session");
+        }
+        int reset = jdbc.update("""
+                UPDATE user_account u SET status = ?
+                WHERE u.status = ?
+                  AND NOT EXISTS (SELECT 1 FROM presence_session p
+                                  WHERE p.user_id = u.id AND p.expires_at > LOCALTIMESTAMP)
+                """, UserStatus.offline.ordinal(), UserStatus.active.ordinal());
+        if (reset > 0) log.info("Reset {} users left active without a live session", reset);
+    }
+
+    @Scheduled(fixedDelayString = "${presence.flush-interval:2000}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+
+        List<UUID> wentOnline = new ArrayList<>();
+        List<UUID> wentOffline = new ArrayList<>();
+        for (Iterator<UUID> it = dirty.iterator(); it.hasNext(); ) {
+            UUID userId = it.next();
+            it.remove();
+            boolean online = isOnline(userId);
+            // flapped back to where it was at the last flush
+            if (online == flushedOnline.contains(userId)) continue;
+            (online ? wentOnline : wentOffline).add(userId);
+        }
+        if (wentOnline.isEmpty() && wentOffline.isEmpty()) return;
+
+        List<UUID> nowActive = new ArrayList<>();
+        List<UUID> nowOffline = new ArrayList<>();
+        try {
+            for (List<UUID> chunk : chunks(wentOnline)) {
+                upsertSessions(chunk);
+                nowActive.addAll(markActive(chunk));
+            }
+            for (List<UUID> chunk : chunks(wentOffline)) {
+                sql.update("DELETE FROM presence_session WHERE node_id = :nodeId AND user_id IN (:userIds)",
+                        new MapSqlParameterSource("nodeId", nodeId).addValue("userIds", chunk));
+                nowOffline.addAll(markOffline(chunk));
+            }
+        } catch (DataAccessException e) {
+            // every step is idempotent; retried on the next flush
+            log.warn("Presence flush failed for {} users: {}", wentOnline.size() + wentOffline.size(), e.getMessage());
+            dirty.addAll(wentOnline);
+            dirty.addAll(wentOffline);
+            return;
+        }
+        flushedOnline.addAll(wentOnline);
+        wentOffline.forEach(flushedOnline::remove);
+
+        pushToFriends(nowActive, nowOffline);
+    }
+
+    /**
+     * Keeps this node's rows alive and takes offline the users whose rows all expired. If this
+     * node's rows expired meanwhile (database unreachable for longer than the TTL) they are
+     * written again and their users marked active again.
+     */
+    @Scheduled(fixedDelayString = "${presence.heartbeat-interval:15000}")
+    public void heartbeat() {
+        try {
+            List<UUID> local = new ArrayList<>(flushedOnline);
+            int refreshed = jdbc.update("""
+                    UPDATE presence_session SET expires_at = LOCALTIMESTAMP + CAST(? AS integer) * INTERVAL '1 millisecond'
+                    WHERE node_id = ? AND expires_at > LOCALTIMESTAMP
+                    """, sessionTtlMs, nodeId);
+            List<UUID> nowActive = new ArrayList<>();
+            if (refreshed < local.size()) {
+                for (List<UUID> chunk : chunks(local)) {
+                    upsertSessions(chunk);
+                    nowActive.addAll(markActive(chunk));
+                }
+            }
+
+            List<UUID> expired = jdbc.queryForList(
+                    "DELETE FROM presence_session WHERE expires_at <= LOCALTIMESTAMP RETURNING user_id", UUID.class);
+            List<UUID> nowOffline = new ArrayList<>();
+            for (List<UUID> chunk : chunks(new ArrayList<>(new HashSet<>(expired)))) {
+                nowOffline.addAll(markOffline(chunk));
+            }
+            pushToFriends(nowActive, nowOffline);
+        } catch (DataAccessException e) {
+            log.warn("Presence heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void upsertSessions(List<UUID> userIds) {
+        sql.update(UPSERT_SESSIONS, new MapSqlParameterSource("nodeId", nodeId)
+                .addValue("ttlMs", sessionTtlMs)
+                .addValue("userIds", userIds));
+    }
+
+    private List<UUID> markActive(List<UUID> userIds) {
+        return sql.queryForList(MARK_ACTIVE, new MapSqlParameterSource("active", UserStatus.active.ordinal())
+                .addValue("userIds", userIds), UUID.class);
+    }
+
+    private List<UUID> markOffline(List<UUID> userIds) {
+        return sql.queryForList(MARK_OFFLINE, new MapSqlParameterSource("offline", UserStatus.offline.ordinal())
+                .addValue("userIds", userIds), UUID.class);
+    }
+
+    private static List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += FLUSH_CHUNK) {
+            chunks.add(ids.subList(i, Math.min(i + FLUSH_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+
+    private void pushToFriends(List<UUID> wentOnline, List<UUID> wentOffline) {
+        if (wentOnline.isEmpty() && wentOffline.isEmpty()) return;
+        Map<UUID, UserStatus> changed = new HashMap<>();
+        wentOnline.forEach(id -> changed.put(id, UserStatus.active));
+        wentOffline.forEach(id -> changed.put(id, UserStatus.offline));
+
+        // one frame per friend, listing every friend of theirs that changed
+        Map<UUID, List<PresenceDTO>> byRecipient = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(changed.keySet());
+        try {
+            for (List<UUID> chunk : chunks(ids)) {
+                for (FriendEdge edge : friendshipRepository.findAcceptedFriendEdges(chunk)) {
+                    // friends on other nodes are not in sessionCounts
+                    if (!clusterRelay.isClustered() && !isOnline(edge.getFriendId())) continue;
+                    byRecipient.computeIfAbsent(edge.getFriendId(), k -> new ArrayList<>())
+                            .add(new PresenceDTO(edge.getUserId(), changed.get(edge.getUserId())));
+                }
+            }
+        } catch (DataAccessException e) {
+            // the status is already stored; friends see it on their next load
+            log.warn("Presence push skipped for {} users: {}", ids.size(), e.getMessage());
+            return;
+        }
+        byRecipient.forEach((friendId, updates) ->
+                ws.convertAndSendToUser(friendId.toString(), USER_QUEUE, updates));
+    }
+
+    private static UUID userIdOf(Principal user) {
+        if (user == null) return null;
+        try {
+            return UUID.fromString(user.getName());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 // backend/src/main/java/NeonSquare/backend/services/ReactionService.java
 package NeonSquare.backend.services;
 
+import NeonSquare.backend.events.PostChangedEvent;
 import NeonSquare.backend.models.Post;
 import NeonSquare.backend.models.Reaction;
 import NeonSquare.backend.repositories.PostRepository;
 import NeonSquare.backend.repositories.ReactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,10 +17,14 @@ import java.util.UUID;
 public class ReactionService {
     private final ReactionRepository reactionRepository;
     private final PostRepository postRepository;
+    private final ApplicationEventPublisher events;
 
-    public ReactionService(ReactionRepository reactionRepository, PostRepository postRepository) {
+    public ReactionService(ReactionRepository reactionRepository,
+                           PostRepository postRepository,
+                           ApplicationEventPublisher events) {
         this.reactionRepository = reactionRepository;
         this.postRepository = postRepository;
+        this.events = events;
     }
 
     @Transactional
@@ -31,6 +37,17 @@ public class ReactionService {
         return reactionRepository.save(reaction);
     }
 
+    /** Save a reaction, attach it to the post and bump the post's reaction counter. */
+    @Transactional
+    public Reaction addReactionToPost(Post post, Reaction reaction) {
+        Reaction saved = reactionRepository.save(reaction);
+        post.getReactions().add(saved);
+        postRepository.save(post);
+        postRepository.adjustReactionCount(post.getId(), 1);
+        events.publishEvent(new PostChangedEvent(post.getId()));
+        return saved;
+    }
+
     /**
      * Returns the newest reaction by (user, post).
      * If duplicates exist, prunes the older ones.
@@ -44,6 +61,10 @@ public class ReactionService {
         for (int i = 1; i < list.size(); i++) {
             reactionRepository.delete(list.get(i));
         }
+        if (list.size() > 1) {
+            postRepository.adjustReactionCount(postId, -(list.size() - 1));
+            events.publishEvent(new PostChangedEvent(postId));
+        }
         return newest;
     }
 
@@ -62,6 +83,8 @@ public class ReactionService {
             reactionRepository.delete(r);
         }
         postRepository.save(post);
+        postRepository.adjustReactionCount(postId, -list.size());
+        events.publishEvent(new PostChangedEvent(postId));
         return true;
     }
 }
@@ -0,0 +1,129 @@
+// backend/src/main/java/NeonSquare/backend/services/TimelineService.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.FeedCursor;
+import NeonSquare.backend.dto.PostFeedRow;
+import NeonSquare.backend.events.PostCreatedEvent;
+import NeonSquare.backend.models.enums.PostVisibility;
+import NeonSquare.backend.repositories.FriendshipRepository;
+import NeonSquare.backend.repositories.PostRepository;
+import NeonSquare.backend.repositories.TimelineEntryRepository;
+import NeonSquare.backend.repositories.TimelinePullAuthorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Personal timelines.
+ * Write path: after a post commits, its id is copied into the author's and each accepted friend's
+ * timeline (fan-out-on-write). Authors above timeline.fanout-threshold friends are flagged instead,
+ * and their posts are merged in when a friend reads (fan-out-on-read).
+ * Read path: one keyset range scan per page plus one projection query to hydrate the posts.
+ */
+@Slf4j
+@Service
+public class TimelineService {
+
+    // "before everything": the head page uses the same query as every other page
+    private static final FeedCursor HEAD = new FeedCursor(LocalDateTime.of(9999, 12, 31, 23, 59), new UUID(-1L, -1L));
+
+    private final TimelineEntryRepository timelineRepository;
+    private final TimelinePullAuthorRepository pullAuthorRepository;
+    private final FriendshipRepository friendshipRepository;
+    private final PostRepository postRepository;
+    private final DataMigrations migrations;
+
+    @Value("${timeline.fanout-threshold:1000}")
+    private int fanoutThreshold;
+
+    @Value("${timeline.fanout-chunk-size:500}")
+    private int chunkSize;
+
+    public TimelineService(TimelineEntryRepository timelineRepository,
+                           TimelinePullAuthorRepository pullAuthorRepository,
+                           FriendshipRepository friendshipRepository,
+                           PostRepository postRepository,
+                           DataMigrations migrations) {
+        this.timelineRepository = timelineRepository;
+        this.pullAuthorRepository = pullAuthorRepository;
+        this.friendshipRepository = friendshipRepository;
+        this.postRepository = postRepository;
+        this.migrations = migrations;
+    }
+
+    // The home feed reads timelines, so posts written before fan-out existed must be in them too
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTimelines() {
+        migrations.runOnce("timeline-entries", () -> {
+            int inserted = timelineRepository.backfillFromPosts();
+            log.info("Backfilled {} timeline entries from existing posts", inserted);
+        });
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostCreated(PostCreatedEvent event) {
+        try {
+            fanOut(event);
+        } catch (Exception e) {
+            log.warn("Timeline fan-out failed for post {}: {}", event.postId(), e.getMessage());
+        }
+    }
+
+    public void fanOut(PostCreatedEvent event) {
+        UUID authorId = event.authorId();
+        if (authorId == null) return;
+
+        // the author always sees their own posts, whatever the visibility
+        timelineRepository.fanOut(List.of(authorId), event.postId(), authorId, event.createdAt());
+        if (event.visibility() == PostVisibility.PRIVATE) return;
+
+        List<UUID> owners = friendshipRepository.findAcceptedFriendIds(authorId);
+        if (owners.size() > fanoutThreshold) {
+            pullAuthorRepository.markPullAuthor(authorId);
+            log.debug("Author {} has {} friends, post {} served by fan-out-on-read",
+                    authorId, owners.size(), event.postId());
+            return;
+        }
+
+        int size = Math.max(1, chunkSize);
+        for (int i = 0; i < owners.size(); i += size) {
+            timelineRepository.fanOut(owners.subList(i, Math.min(i + size, owners.size())),
+                    event.postId(), authorId, event.createdAt());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostFeedRow> getTimeline(UUID viewerId, String cursor, Integer limit) {
+        int size = PostService.clampPageSize(limit);
+        FeedCursor after = Optional.ofNullable(FeedCursor.decode(cursor)).orElse(HEAD);
+
+        List<TimelineEntryRepository.TimelineKey> keys =
+                timelineRepository.findPage(viewerId, after.at(), after.id(), size + 1);
+        boolean hasMore = keys.size() > size;
+        if (hasMore) keys = keys.subList(0, size);
+        if (keys.isEmpty()) return new CursorPage<>(List.of(), null);
+
+        List<UUID> ids = keys.stream().map(TimelineEntryRepository.TimelineKey::getPostId).toList();
+        Map<UUID, PostFeedRow> byId = postRepository.findFeedRows(ids, viewerId).stream()
+                .collect(Collectors.toMap(PostFeedRow::getId, Function.identity()));
+        // keep timeline order; ids whose post was deleted meanwhile just drop out
+        List<PostFeedRow> rows = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        TimelineEntryRepository.TimelineKey last = keys.get(keys.size() - 1);
+        String next = hasMore ? new FeedCursor(last.getPostedAt(), last.getPostId()).encode() : null;
+        return new CursorPage<>(rows, next);
+    }
+}
@@ -59,14 +59,14 @@ public class UserService {
         if (file == null || file.isEmpty()) {
             return user; // or throw new IllegalArgumentException("Empty file");
         }
-        if (user.getProfilePic() != null) {
-            Image updatedImage = imageService.updateImage(file, user.getProfilePic().getId());
-            user.setProfilePic(updatedImage);
-        } else {
-            Image image = imageService.saveImage(file);
-            user.setProfilePic(image);
+        // a new picture gets a new image id, so clients can cache image URLs indefinitely
+        Image previous = user.getProfilePic();
+        user.setProfilePic(imageService.saveImage(file));
+        User saved = userRepository.save(user);
+        if (previous != null) {
+            imageService.deleteImage(previous.getId());
         }
-        return userRepository.save(user);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,66 @@
+// backend/src/test/java/NeonSquare/backend/dto/FeedCursorTest.java
+package NeonSquare.backend.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    @Test
+    void roundTripsTimestampAndId() {
+        // microsecond precision, as Postgres timestamps come back
+        FeedCursor cursor = new FeedCursor(LocalDateTime.of(2025, 3, 1, 10, 0, 5, 123_456_000),
+                UUID.fromString("8f14e45f-ceea-467f-a8f4-0a3c1e2b9d77"));
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(FeedCursor.decode(token)).isEqualTo(cursor);
+        assertThat(FeedCursor.decode(" " + token + " ")).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeSecondsAndExtremeIds() {
+        FeedCursor min = new FeedCursor(LocalDateTime.of(2025, 3, 1, 10, 0), new UUID(0L, 0L));
+        FeedCursor max = new FeedCursor(LocalDateTime.of(9999, 12, 31, 23, 59), new UUID(-1L, -1L));
+
+        assertThat(FeedCursor.decode(min.encode())).isEqualTo(min);
+        assertThat(FeedCursor.decode(max.encode())).isEqualTo(max);
+    }
+
+    @Test
+    void missingTokenMeansFirstPage() {
+        assertThat(FeedCursor.decode(null)).isNull();
+        assertThat(FeedCursor.decode("")).isNull();
+        assertThat(FeedCursor.decode("   ")).isNull();
+    }
+
+    @Test
+    void malformedTokensAreBadRequests() {
+        assertBadRequest("not base64!");
+        assertBadRequest(encode("no separator"));
+        assertBadRequest(encode("yesterday|8f14e45f-ceea-467f-a8f4-0a3c1e2b9d77"));
+        assertBadRequest(encode("2025-03-01T10:00|not-a-uuid"));
+        assertBadRequest(encode("2025-03-01T10:00|"));
+    }
+
+    private static void assertBadRequest(String token) {
+        assertThatThrownBy(() -> FeedCursor.decode(token))
+                .as(token)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+// backend/src/test/java/NeonSquare/backend/services/ChatArchiveCodecTest.java
+package NeonSquare.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatArchiveCodecTest {
+
+    @Test
+    void roundTripsRecordsInOrder() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 23, 59, 59, 999_999_000);
+        List<ChatArchiveCodec.Record> written = new ArrayList<>();
+        ChatArchiveCodec.Encoder encoder = ChatArchiveCodec.encoder();
+        for (int i = 0; i < 500; i++) {
+            ChatArchiveCodec.Record r = new ChatArchiveCodec.Record(UUID.randomUUID(), UUID.randomUUID(),
+                    start.plusNanos(i * 1_000L), i % 7 == 0 ? "" : "message " + i + " héllo ✓ 🙂");
+            written.add(r);
+            encoder.append(r);
+        }
+        byte[] block = encoder.finish();
+
+        assertThat(encoder.messages()).isEqualTo(500);
+        assertThat(encoder.firstSentAt()).isEqualTo(start);
+        assertThat(encoder.lastSentAt()).isEqualTo(start.plusNanos(499_000L));
+
+        List<ChatArchiveCodec.Record> read = new ArrayList<>();
+        ChatArchiveCodec.decode(block, encoder.messages(), read::add);
+        assertThat(read).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void stopsWhenTheVisitorDoes() {
+        ChatArchiveCodec.Encoder encoder = ChatArchiveCodec.encoder();
+        for (int i = 0; i < 10; i++) {
+            encoder.append(new ChatArchiveCodec.Record(UUID.randomUUID(), UUID.randomUUID(),
+                    LocalDateTime.of(2024, 2, 29, 12, 0).plusSeconds(i), "m" + i));
+        }
+        byte[] block = encoder.finish();
+
+        List<String> seen = new ArrayList<>();
+        ChatArchiveCodec.decode(block, 10, r -> {
+            seen.add(r.content());
+            return seen.size() < 3;
+        });
+        assertThat(seen).containsExactly("m0", "m1", "m2");
+    }
+
+    @Test
+    void emptyBlockDecodesToNothing() {
+        ChatArchiveCodec.Encoder encoder = ChatArchiveCodec.encoder();
+        byte[] block = encoder.finish();
+
+        List<ChatArchiveCodec.Record> read = new ArrayList<>();
+        ChatArchiveCodec.decode(block, 0, read::add);
+        assertThat(read).isEmpty();
+        assertThat(encoder.firstSentAt()).isNull();
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThatThrownBy(() -> ChatArchiveCodec.decode(new byte[]{1, 2, 3}, 1, r -> true))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -0,0 +1,52 @@
+// backend/src/test/java/NeonSquare/backend/services/ChatArchiveServiceTest.java
+package NeonSquare.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatArchiveServiceTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Test
+    void ordersBySentAtFirst() {
+        UUID low = UUID.fromString("00000000-0000-0000-0000-000000000000");
+        UUID high = UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff");
+
+        assertThat(ChatArchiveService.comparePosition(AT, high, AT.plusNanos(1000), low)).isNegative();
+        assertThat(ChatArchiveService.comparePosition(AT.plusSeconds(1), low, AT, high)).isPositive();
+        assertThat(ChatArchiveService.comparePosition(AT, high, AT, high)).isZero();
+    }
+
+    @Test
+    void comparesUuidsUnsignedLikePostgres() {
+        // Postgres compares uuid bytes with memcmp; UUID.compareTo compares signed longs
+        UUID topBitHigh = UUID.fromString("80000000-0000-0000-0000-000000000000");
+        UUID topBitLow = UUID.fromString("7fffffff-ffff-ffff-ffff-ffffffffffff");
+        assertThat(topBitHigh.compareTo(topBitLow)).isNegative();
+        assertThat(ChatArchiveService.comparePosition(AT, topBitHigh, AT, topBitLow)).isPositive();
+
+        UUID lowHalfHigh = UUID.fromString("00000000-0000-0000-8000-000000000000");
+        UUID lowHalfLow = UUID.fromString("00000000-0000-0000-7fff-ffffffffffff");
+        assertThat(ChatArchiveService.comparePosition(AT, lowHalfHigh, AT, lowHalfLow)).isPositive();
+    }
+
+    @Test
+    void matchesCanonicalTextOrder() {
+        // lowercase canonical text sorts exactly like the 16 bytes it encodes
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            UUID a = new UUID(random.nextLong(), random.nextLong());
+            UUID b = random.nextInt(10) == 0 ? new UUID(a.getMostSignificantBits(), random.nextLong())
+                                             : new UUID(random.nextLong(), random.nextLong());
+            assertThat(Integer.signum(ChatArchiveService.comparePosition(AT, a, AT, b)))
+                    .as("%s vs %s", a, b)
+                    .isEqualTo(Integer.signum(a.toString().compareTo(b.toString())));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+// backend/src/test/java/NeonSquare/backend/services/PostCacheServiceTest.java
+package NeonSquare.backend.services;
+
+import NeonSquare.backend.dto.CursorPage;
+import NeonSquare.backend.dto.PostDTO;
+import NeonSquare.backend.dto.PostFeedRow;
+import NeonSquare.backend.events.PostChangedEvent;
+import NeonSquare.backend.events.PostCreatedEvent;
+import NeonSquare.backend.models.enums.PostVisibility;
+import NeonSquare.backend.models.enums.ReactionType;
+import NeonSquare.backend.repositories.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class PostCacheServiceTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final String CURSOR = "page-2";
+    private static final int LIMIT = 20;
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+
+    private PostService postService;
+    private PostCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        postService = mock(PostService.class);
+        when(postService.getPostViews(anyList(), isNull())).thenReturn(List.of());
+        when(postService.getViewerReactions(any(), any())).thenReturn(List.of());
+        cache = new PostCacheService(postService, new SimpleMeterRegistry(), true,
+                DataSize.ofMegabytes(1), Duration.ofMinutes(1), DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void writeCommittingDuringLoadLeavesNothingStale() {
+        // the page load reads "old", then the edit commits before the load has stored its result
+        when(postService.getFeedPage(isNull(), eq(LIMIT), isNull())).thenAnswer(inv -> {
+            cache.onPostChanged(new PostChangedEvent(a));
+            return new CursorPage<>(List.of(row(a, "old")), null);
+        }).thenReturn(new CursorPage<>(List.of(row(a, "new")), null));
+        when(postService.getPostViews(List.of(a), null)).thenReturn(List.of(row(a, "new")));
+
+        assertThat(texts(cache.getFeed(null, LIMIT, null))).containsExactly("old");
+
+        // neither the page nor the post read before the commit was kept
+        assertThat(cache.getPost(a, null).getText()).isEqualTo("new");
+        assertThat(texts(cache.getFeed(null, LIMIT, null))).containsExactly("new");
+        verify(postService, times(2)).getFeedPage(isNull(), eq(LIMIT), isNull());
+    }
+
+    @Test
+    void cachedPageSkipsDeletedPost() {
+        when(postService.getFeedPage(CURSOR, LIMIT, null))
+                .thenReturn(new CursorPage<>(List.of(row(a, "a"), row(b, "b")), "page-3"));
+        cache.getFeed(CURSOR, LIMIT, null);
+
+        // b is deleted (or no longer public): its row is dropped, the page itself stays cached
+        cache.onPostChanged(new PostChangedEvent(b));
+        CursorPage<PostDTO> page = cache.getFeed(CURSOR, LIMIT, null);
+
+        assertThat(page.getItems()).extracting(PostDTO::getId).containsExactly(a);
+        assertThat(page.getNextCursor()).isEqualTo("page-3");
+        verify(postService, times(1)).getFeedPage(CURSOR, LIMIT, null);
+        verify(postService).getPostViews(List.of(b), null);
+    }
+
+    @Test
+    void writesOnlyDropHeadPages() {
+        when(postService.getFeedPage(null, LIMIT, null)).thenReturn(new CursorPage<>(List.of(row(a, "a")), CURSOR));
+        when(postService.getFeedPage(CURSOR, LIMIT, null)).thenReturn(new CursorPage<>(List.of(row(b, "b")), null));
+        cache.getFeed(null, LIMIT, null);
+        cache.getFeed(CURSOR, LIMIT, null);
+
+        cache.onPostCreated(new PostCreatedEvent(UUID.randomUUID(), UUID.randomUUID(), PostVisibility.PUBLIC, AT));
+        cache.onPostChanged(new PostChangedEvent(a));
+        cache.getFeed(null, LIMIT, null);
+        cache.getFeed(CURSOR, LIMIT, null);
+
+        verify(postService, times(2)).getFeedPage(null, LIMIT, null);
+        verify(postService, times(1)).getFeedPage(CURSOR, LIMIT, null);
+        // b was untouched and is still served from the post cache
+        verify(postService, never()).getPostViews(List.of(b), null);
+    }
+
+    @Test
+    void viewerReactionIsLaidOverACopy() {
+        UUID viewer = UUID.randomUUID();
+        UUID reactionId = UUID.randomUUID();
+        PostRepository.ViewerReactionRow mine = mock(PostRepository.ViewerReactionRow.class);
+        when(mine.getPostId()).thenReturn(a);
+        when(mine.getType()).thenReturn(ReactionType.LIKE.ordinal());
+        when(mine.getReactionId()).thenReturn(reactionId);
+        when(mine.getReactedAt()).thenReturn(AT);
+        when(postService.getViewerReactions(List.of(a), viewer)).thenReturn(List.of(mine));
+        when(postService.getFeedPage(null, LIMIT, null)).thenReturn(new CursorPage<>(List.of(row(a, "a")), null));
+
+        PostDTO seen = cache.getFeed(null, LIMIT, viewer).getItems().get(0);
+        assertThat(seen.getViewerReaction()).isEqualTo(ReactionType.LIKE);
+        assertThat(seen.getReactions()).singleElement().satisfies(r -> {
+            assertThat(r.getId()).isEqualTo(reactionId);
+            assertThat(r.getUserId()).isEqualTo(viewer);
+        });
+
+        PostDTO anonymous = cache.getFeed(null, LIMIT, null).getItems().get(0);
+        assertThat(anonymous.getViewerReaction()).isNull();
+        assertThat(anonymous.getReactions()).isEmpty();
+        verify(postService, times(1)).getFeedPage(null, LIMIT, null);
+    }
+
+    @Test
+    void nonPublicPostIsLoadedForTheViewerAndNotCached() {
+        UUID viewer = UUID.randomUUID();
+        when(postService.getPostView(a, viewer)).thenReturn(row(a, "friends only"));
+
+        assertThat(cache.getPost(a, viewer).getText()).isEqualTo("friends only");
+        assertThat(cache.getPost(a, viewer).getText()).isEqualTo("friends only");
+        verify(postService, times(2)).getPostView(a, viewer);
+    }
+
+    private static List<String> texts(CursorPage<PostDTO> page) {
+        return page.getItems().stream().map(PostDTO::getText).toList();
+    }
+
+    private static PostFeedRow row(UUID id, String content) {
+        return new Row(id, content);
+    }
+
+    // public post with no author, images or viewer state
+    private record Row(UUID getId, String getContent) implements PostFeedRow {
+        public Integer getVisibility() { return PostVisibility.PUBLIC.ordinal(); }
+        public LocalDateTime getUpdatedAt() { return AT; }
+        public UUID getAuthorId() { return null; }
+        public String getAuthorFirstName() { return null; }
+        public String getAuthorLastName() { return null; }
+        public String getAuthorEmail() { return null; }
+        public Integer getAuthorStatus() { return null; }
+        public UUID getAuthorProfilePicId() { return null; }
+        public Long getCommentCount() { return 0L; }
+        public Long getReactionCount() { return 0L; }
+        public Integer getViewerReaction() { return null; }
+        public UUID getViewerReactionId() { return null; }
+        public LocalDateTime getViewerReactedAt() { return null; }
+        public String getImageIds() { return null; }
+    }
+}
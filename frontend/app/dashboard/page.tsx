@@ -41,12 +41,21 @@ function Dashboard() {
   const [searchQuery, setSearchQuery] = useState('');
   const [isLoading, setIsLoading] = useState(true);
   const [posts, setPosts] = useState<Post[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
   const [currentPage, setCurrentPage] = useState(1);
   const postsPerPage = 3;
   const { user, isAuthenticated } = useAuth();
   const { themeColors } = useTheme();
   const { announcement, announce } = useScreenReaderAnnouncement();
 
+  // Signed-in users read their timeline; both sources page by cursor
+  const fetchPage = useCallback(
+    (cursor: string | null) =>
+      user?.id ? apiService.getTimeline(user.id, cursor) : apiService.getPosts(cursor),
+    [user?.id]
+  );
+
   // Fetch posts from API
   const fetchPosts = useCallback(async () => {
     try {
@@ -54,9 +63,10 @@ function Dashboard() {
       console.log('Fetching posts...');
       // Add delay to ensure BE is ready
       await new Promise(resolve => setTimeout(resolve, 1000));
-      const fetchedPosts = await apiService.getPosts();
-      console.log('Fetched posts:', fetchedPosts);
-      setPosts(fetchedPosts);
+      const page = await fetchPage(null);
+      console.log('Fetched posts:', page.items);
+      setPosts(page.items);
+      setNextCursor(page.nextCursor);
       announce('Posts loaded successfully');
     } catch (error) {
       console.error('Failed to fetch posts:', error);
@@ -67,16 +77,40 @@ function Dashboard() {
       });
       // Fallback to empty array if API fails
       setPosts([]);
+      setNextCursor(null);
     } finally {
       setIsLoading(false);
     }
-  }, [announce]);
+  }, [announce, fetchPage]);
+
+  // Next server page, appended; ids already shown (e.g. edited and bumped) are skipped
+  const loadMorePosts = useCallback(async () => {
+    if (!nextCursor || isLoadingMore) return;
+    try {
+      setIsLoadingMore(true);
+      const page = await fetchPage(nextCursor);
+      setPosts(prev => {
+        const seen = new Set(prev.map(p => p.id));
+        return [...prev, ...page.items.filter(p => !seen.has(p.id))];
+      });
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Failed to load more posts:', error);
+      addToast({
+        type: 'error',
+        title: 'Failed to load more posts',
+        description: 'Please try again later',
+      });
+    } finally {
+      setIsLoadingMore(false);
+    }
+  }, [nextCursor, isLoadingMore, fetchPage]);
 
   useEffect(() => {
     if (isAuthenticated) {
       fetchPosts();
     }
-  }, [isAuthenticated]);
+  }, [isAuthenticated, user?.id]);
 
   // Listen for post creation events
   useEffect(() => {
@@ -332,6 +366,20 @@ function Dashboard() {
                     </div>
                   </div>
                 )}
+
+                {/* More from the server once the loaded posts are all shown */}
+                {nextCursor && currentPage >= totalPages && (
+                  <div className="flex justify-center">
+                    <Button
+                      variant="outline"
+                      onClick={loadMorePosts}
+                      disabled={isLoadingMore}
+                      className="px-6 py-2 rounded-lg"
+                    >
+                      {isLoadingMore ? 'Loading...' : 'Load more posts'}
+                    </Button>
+                  </div>
+                )}
               </div>
 
               {/* Community Sidebar */}
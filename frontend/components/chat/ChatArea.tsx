@@ -147,7 +147,8 @@ export default function ChatArea({
 
     const sentAt = new Date().toISOString();
     const convId = String(conversation.id);
-    const tempId = `tmp-${Date.now()}`;
+    // Also the server's idempotency key for this send, so it must be unique per sender, not per millisecond
+    const tempId = `tmp-${crypto.randomUUID()}`;
 
     setMessages((prev) =>
       mergeById(prev, [{
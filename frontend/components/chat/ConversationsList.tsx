@@ -83,7 +83,8 @@ export default function ConversationsList({
           </div>
           {conv.unreadCount > 0 && (
             <Badge className="bg-primary text-primary-foreground text-xs">
-              {conv.unreadCount}
+              {/* the inbox stops counting at 100 */}
+              {conv.unreadCount > 99 ? '99+' : conv.unreadCount}
             </Badge>
           )}
         </div>
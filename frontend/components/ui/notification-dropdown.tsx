@@ -132,7 +132,9 @@ export function NotificationDropdown({ className }: NotificationDropdownProps) {
     const handler = (e: Event) => {
       const dto = (e as CustomEvent).detail as IncomingDTO;
       if (!dto || String(dto.userId) !== String(userId)) return;
-      setNotifications(prev => [mapDtoToUi(dto), ...prev]);
+      // reconnect catch-up can overlap a live push
+      setNotifications(prev =>
+        prev.some(n => String(n.id) === String(dto.id)) ? prev : [mapDtoToUi(dto), ...prev]);
     };
 
     window.addEventListener('notification:new', handler as EventListener);
@@ -72,6 +72,12 @@ export interface Post {
   reactionCount?: number;
 }
 
+// One keyset page; nextCursor is null on the last page
+export interface PostPage {
+  items: Post[];
+  nextCursor: string | null;
+}
+
 export interface AuthResponse {
   token: string | null;
   userId: string | null;            // backend sends UUID as string (or null on failure)
@@ -124,6 +130,11 @@ export class ApiService {
 
   /** Strict: throws on non-2xx */
   private async request<T>(endpoint: string, options: RequestInit = {}): Promise<T> {
+    return this.parseBody<T>(await this.fetchOk(endpoint, options));
+  }
+
+  /** Strict fetch for callers that also need response headers */
+  private async fetchOk(endpoint: string, options: RequestInit = {}): Promise<Response> {
     const url = `${this.baseURL}${endpoint}`;
     const headers = this.buildHeaders(options.body, options.headers as Record<string, string>);
     const res = await fetch(url, { ...options, headers });
@@ -138,7 +149,10 @@ export class ApiService {
         throw new Error(errorText || `HTTP ${res.status}`);
       }
     }
+    return res;
+  }
 
+  private async parseBody<T>(res: Response): Promise<T> {
     if (res.status === 204) return {} as T;
 
     const ct = (res.headers.get('content-type') || '').toLowerCase();
@@ -280,8 +294,23 @@ export class ApiService {
   }
 
   // ----------------------------- Posts --------------------------------------
-  async getPosts(): Promise<Post[]> {
-    return this.request<Post[]>('/posts');
+  // Global feed, one page at a time; the next page's cursor comes back in X-Next-Cursor
+  async getPosts(cursor?: string | null): Promise<PostPage> {
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    const res = await this.fetchOk(`/posts${query}`);
+    const items = await this.parseBody<Post[]>(res);
+    return {
+      items: Array.isArray(items) ? items : [],
+      nextCursor: res.headers.get('X-Next-Cursor'),
+    };
+  }
+
+  // Home feed: the user's own posts plus friends' public and friends-only posts
+  async getTimeline(userId: string, cursor?: string | null): Promise<PostPage> {
+    const params = new URLSearchParams({ userId });
+    if (cursor) params.set('cursor', cursor);
+    const page = await this.request<PostPage>(`/posts/timeline?${params}`);
+    return { items: page?.items ?? [], nextCursor: page?.nextCursor ?? null };
   }
 
   async createPost(text: string, userId: string, visibility: string = 'PUBLIC'): Promise<Post> {
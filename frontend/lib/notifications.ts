@@ -1,5 +1,9 @@
 // frontend/lib/notifications.ts
 import { Client, IMessage } from '@stomp/stompjs';
+import { apiService } from '@/lib/api';
+
+// Server cap on one catch-up page (NotificationService.MAX_CATCH_UP)
+const CATCH_UP_PAGE = 100;
 
 export function connectNotifications(
   userId: string,
@@ -8,20 +12,80 @@ export function connectNotifications(
   const httpBase = process.env.NEXT_PUBLIC_API_URL!; // e.g. http://localhost:8080/api
   const wsBase = httpBase.replace('/api', '').replace(/^http/, 'ws'); // -> ws://localhost:8080
 
+  // (createDate, id) of the newest notification seen on this page; drives the reconnect catch-up
+  type Mark = { at: string; id: string };
+  let lastSeen: Mark | null = null;
+
+  // same order as the server's keyset: createDate, then id (uuid text order matches Postgres)
+  const isAfter = (a: Mark, b: Mark) => a.at > b.at || (a.at === b.at && a.id > b.id);
+  const markOf = (data: any): Mark | null =>
+    data?.createDate && data?.id ? { at: data.createDate, id: String(data.id) } : null;
+
+  const deliver = (data: any) => {
+    const mark = markOf(data);
+    if (mark && (!lastSeen || isAfter(mark, lastSeen))) lastSeen = mark;
+    onMessage(data);
+  };
+
+  const fetchList = async (query: string): Promise<any[]> => {
+    const res = await fetch(`${httpBase}/notifications/${encodeURIComponent(userId)}?${query}`);
+    if (!res.ok) throw new Error(`HTTP ${res.status}`);
+    const data = await res.json();
+    return Array.isArray(data) ? data : [];
+  };
+
+  // The server skips pushes while we are offline; fetch what was created in between
+  const catchUp = async () => {
+    try {
+      if (!lastSeen) {
+        // first connect: the initial list fetch already shows these, only note the newest
+        // (createDate is server-local time, so the client clock can't be used here)
+        const [newest] = await fetchList('limit=1');
+        if (!lastSeen) lastSeen = markOf(newest) ?? { at: '1970-01-01T00:00:00', id: '' };
+        return;
+      }
+      // oldest first, one keyset page at a time, until a short page says we are current; the page
+      // cursor is local so live pushes moving lastSeen ahead meanwhile can't skip the rest
+      let from: Mark = lastSeen;
+      for (;;) {
+        const params = new URLSearchParams({ since: from.at, limit: String(CATCH_UP_PAGE) });
+        if (from.id) params.set('afterId', from.id);
+        const missed = await fetchList(params.toString());
+        missed.forEach(deliver);
+        const last = markOf(missed[missed.length - 1]);
+        if (missed.length < CATCH_UP_PAGE || !last) break;
+        from = last;
+      }
+    } catch {}
+  };
+
   const client = new Client({
     brokerURL: `${wsBase}/ws`,
     reconnectDelay: 5000,
     // debug: (str) => console.log('[STOMP]', str),
+    beforeConnect: () => {
+      // re-read on every (re)connect so a refreshed login is picked up
+      const token = apiService.getToken();
+      client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+    },
   });
 
   client.onConnect = () => {
-    client.subscribe(`/topic/user.${userId}`, (msg: IMessage) => {
+    // user destination: the broker routes it to this user's sessions only
+    client.subscribe('/user/queue/notifications', (msg: IMessage) => {
       try {
-        onMessage(JSON.parse(msg.body));
+        deliver(JSON.parse(msg.body));
       } catch {
         onMessage(msg.body);
       }
     });
+    // friends going online/offline, batched per flush: [{ userId, status }]
+    client.subscribe('/user/queue/presence', (msg: IMessage) => {
+      try {
+        window.dispatchEvent(new CustomEvent('presence:update', { detail: JSON.parse(msg.body) }));
+      } catch {}
+    });
+    void catchUp();
   };
 
   client.activate();